@@ -14,7 +14,12 @@ group = "com.microej.training.ui"
 version = "1.2.0"
 
 microej {
-    applicationMainClass = "com.microej.exercise.ui.Main"
+    // runs the rendering benchmark instead of the application when the "benchmark" property is set
+    applicationMainClass = if (project.hasProperty("benchmark")) {
+        "com.microej.exercise.ui.benchmark.BenchmarkMain"
+    } else {
+        "com.microej.exercise.ui.Main"
+    }
 }
 
 dependencies {
@@ -9,9 +9,18 @@ package com.microej.exercise.ui;
 
 import com.microej.exercise.ui.applicationmenu.ApplicationMenuPage;
 import com.microej.exercise.ui.style.Fonts;
+import com.microej.exercise.ui.util.CoalescingPointerEventDispatcher;
+import com.microej.exercise.ui.util.ListenableRenderPolicy;
 import com.microej.exercise.ui.util.Model;
+import com.microej.exercise.ui.util.MonitoredRenderPolicy;
 import com.microej.exercise.ui.util.Page;
+import com.microej.exercise.ui.util.PageCache;
+import com.microej.exercise.ui.util.RenderInstrumentation;
+import com.microej.exercise.ui.util.RenderMonitor;
 import com.microej.exercise.ui.watchface.WatchfacePage;
+import ej.annotation.Nullable;
+import ej.basictool.ArrayTools;
+import ej.bon.Constants;
 import ej.bon.Util;
 import ej.microui.MicroUI;
 import ej.microui.display.Colors;
@@ -20,10 +29,10 @@ import ej.microui.event.generator.Command;
 import ej.mwt.Desktop;
 import ej.mwt.animation.Animator;
 import ej.mwt.event.EventDispatcher;
-import ej.mwt.event.PointerEventDispatcher;
+import ej.mwt.render.RenderPolicy;
 import ej.mwt.style.EditableStyle;
 import ej.mwt.style.background.NoBackground;
-import ej.mwt.stylesheet.cascading.CascadingStylesheet;
+import ej.mwt.stylesheet.Stylesheet;
 import ej.mwt.util.Alignment;
 
 /**
@@ -34,8 +43,42 @@ public class Main {
 	/** Arbitrary application time (in milliseconds since Epoch) for the example purposes. */
 	private static final int SOME_DATE = 1648474804;
 
+	private static final String INSTRUMENTATION = "com.microej.exercise.ui.instrumentation.enabled"; //$NON-NLS-1$
+
+	private static final String PAGE_CACHE_CAPACITY = "com.microej.exercise.ui.pagecache.capacity"; //$NON-NLS-1$
+	private static final String PAGE_CACHE_BUDGET = "com.microej.exercise.ui.pagecache.budget"; //$NON-NLS-1$
+	private static final String PAGE_CACHE_IMAGES_BUDGET = "com.microej.exercise.ui.pagecache.imagesbudget"; //$NON-NLS-1$
+
+	// Keys of the pages in the cache and in the back stack, the applications are identified by their index in the menu.
+	private static final int WATCHFACE_PAGE = -1;
+	private static final int MENU_PAGE = -2;
+	private static final int NO_PAGE = Integer.MIN_VALUE;
+
+	/** The maximum number of pages in the back stack, the oldest ones are forgotten. */
+	private static final int BACK_STACK_CAPACITY = 8;
+
+	private static final PageCache PAGE_CACHE = new PageCache(Constants.getInt(PAGE_CACHE_CAPACITY),
+			Constants.getInt(PAGE_CACHE_BUDGET), Constants.getInt(PAGE_CACHE_IMAGES_BUDGET));
+
+	private static final int[] BACK_STACK = new int[BACK_STACK_CAPACITY];
+
+	private static int backStackSize;
+
+	private static int currentPage = NO_PAGE;
+
+	// Stylesheets of the pages, created once per page class.
+	private static Class<?>[] stylesheetPageTypes = new Class<?>[0];
+	private static Stylesheet[] stylesheets = new Stylesheet[0];
+
 	private static Desktop desktop;
 
+	private static CoalescingPointerEventDispatcher eventDispatcher;
+
+	private static ListenableRenderPolicy renderPolicy;
+
+	@Nullable
+	private static RenderMonitor renderMonitor;
+
 	/**
 	 * Entry point of the application.
 	 *
@@ -60,41 +103,152 @@ public class Main {
 		desktop.requestShow();
 	}
 
+	/**
+	 * Sets the monitor to notify of the frames rendered by the desktop.
+	 *
+	 * <p>
+	 * The monitor is taken into account when the desktop is created, so this method has to be called before
+	 * {@link #main(String[])}.
+	 *
+	 * @param monitor
+	 *            the render monitor, or <code>null</code> to render without monitoring.
+	 */
+	public static void setRenderMonitor(@Nullable RenderMonitor monitor) {
+		renderMonitor = monitor;
+	}
+
 	/**
 	 * Shows the given page on the desktop.
 	 *
+	 * <p>
+	 * The page is not kept in the page cache: it is created again each time it is shown. The current page is pushed on
+	 * the back stack.
+	 *
 	 * @param page
 	 *            the page to show.
 	 */
 	public static void showPage(Page page) {
-		// sets the root widget of the page as the new widget of the desktop
-		desktop.setWidget(page.getWidget());
-
-		// populates a stylesheet with the styles for this page and sets it on the desktop
-		CascadingStylesheet stylesheet = createStylesheet();
-		page.populateStylesheet(stylesheet);
-		desktop.setStylesheet(stylesheet);
-
-		// requests the desktop to lay out again to update the display
-		desktop.requestLayOut();
-
-		// sets the page as the new observer of changes in the data model (i.e., heart rate, step count, battery)
-		Model model = Model.getInstance();
-		model.setObserver(page);
+		updateBackStack(NO_PAGE);
+		currentPage = NO_PAGE;
+		display(page);
 	}
 
 	/**
 	 * Shows the watchface.
 	 */
 	public static void showWatchface() {
-		showPage(new WatchfacePage());
+		showCachedPage(WATCHFACE_PAGE);
 	}
 
 	/**
 	 * Shows the application menu.
 	 */
 	public static void showApplicationMenu() {
-		showPage(new ApplicationMenuPage());
+		showCachedPage(MENU_PAGE);
+	}
+
+	/**
+	 * Shows an application of the menu.
+	 *
+	 * @param index
+	 *            the index of the application in the menu.
+	 */
+	public static void showApplication(int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException();
+		}
+		showCachedPage(index);
+	}
+
+	/**
+	 * Shows the page that was shown before the current one, or the watchface if there is no previous page.
+	 */
+	public static void back() {
+		int size = backStackSize;
+		if (size == 0) {
+			showWatchface();
+		} else {
+			// the page is removed from the back stack when it is shown
+			showCachedPage(BACK_STACK[size - 1]);
+		}
+	}
+
+	/**
+	 * Shows a page of the page cache, the page is created if it is not in the cache.
+	 *
+	 * <p>
+	 * A page that is already in the back stack is shown as a back navigation: the pages above it are removed from the
+	 * stack. Otherwise, the current page is pushed on the back stack.
+	 *
+	 * @param key
+	 *            the key of the page.
+	 */
+	private static void showCachedPage(int key) {
+		PageCache cache = PAGE_CACHE;
+		Page page = cache.get(key);
+		boolean retained = page != null;
+		if (page == null) {
+			page = createPage(key);
+		}
+		updateBackStack(key);
+		currentPage = key;
+		display(page);
+		if (retained) {
+			// the page was not notified of the model changes while it was hidden
+			page.update(Model.ALL_FIELDS);
+		}
+		// the widget of the page has been created, the page reports its size
+		cache.put(key, page);
+	}
+
+	private static Page createPage(int key) {
+		switch (key) {
+		case WATCHFACE_PAGE:
+			return new WatchfacePage();
+		case MENU_PAGE:
+			return new ApplicationMenuPage();
+		default:
+			return ApplicationMenuPage.createApplicationPage(key);
+		}
+	}
+
+	private static void updateBackStack(int key) {
+		int[] backStack = BACK_STACK;
+		int size = backStackSize;
+		if (key != NO_PAGE) {
+			for (int i = size - 1; i >= 0; i--) {
+				if (backStack[i] == key) {
+					// goes back to this page
+					backStackSize = i;
+					return;
+				}
+			}
+		}
+		int current = currentPage;
+		if (current != NO_PAGE && current != key) {
+			if (size == backStack.length) {
+				// forgets the oldest page
+				System.arraycopy(backStack, 1, backStack, 0, size - 1);
+				size--;
+			}
+			backStack[size] = current;
+			backStackSize = size + 1;
+		}
+	}
+
+	private static void display(Page page) {
+		// sets the root widget of the page as the new widget of the desktop
+		desktop.setWidget(page.getWidget());
+
+		// sets the stylesheet of this page on the desktop
+		desktop.setStylesheet(getStylesheet(page));
+
+		// requests the desktop to lay out again to update the display
+		desktop.requestLayOut();
+
+		// sets the page as the new observer of changes in the data model (i.e., heart rate, step count, battery)
+		Model model = Model.getInstance();
+		model.setObserver(page);
 	}
 
 	private static Desktop createDesktop() {
@@ -103,9 +257,44 @@ public class Main {
 			protected EventDispatcher createEventDispatcher() {
 				return newEventDispatcher(this);
 			}
+
+			@Override
+			protected RenderPolicy createRenderPolicy() {
+				RenderMonitor monitor = renderMonitor;
+				if (monitor == null && Constants.getBoolean(INSTRUMENTATION)) {
+					// shows the frame rate and prints the rendering statistics
+					monitor = new RenderInstrumentation();
+				}
+				ListenableRenderPolicy policy;
+				if (monitor != null) {
+					policy = new MonitoredRenderPolicy(this, monitor);
+				} else {
+					policy = new ListenableRenderPolicy(this);
+				}
+				renderPolicy = policy;
+				return policy;
+			}
 		};
 	}
 
+	/**
+	 * Gets the event dispatcher of the desktop, for example to read its counters of coalesced drag events.
+	 *
+	 * @return the event dispatcher.
+	 */
+	public static CoalescingPointerEventDispatcher getEventDispatcher() {
+		return eventDispatcher;
+	}
+
+	/**
+	 * Gets the render policy of the desktop, for example to listen to the render requests of the widgets.
+	 *
+	 * @return the render policy.
+	 */
+	public static ListenableRenderPolicy getRenderPolicy() {
+		return renderPolicy;
+	}
+
 	/**
 	 * Gets the animator instance to use across the application.
 	 *
@@ -115,41 +304,65 @@ public class Main {
 		return desktop.getAnimator();
 	}
 
-	private static CascadingStylesheet createStylesheet() {
-		CascadingStylesheet stylesheet = new CascadingStylesheet();
+	/**
+	 * Gets the stylesheet of a page, it is created the first time a page of this class is shown.
+	 */
+	private static Stylesheet getStylesheet(Page page) {
+		Class<?> pageType = page.getClass();
+		Class<?>[] pageTypes = stylesheetPageTypes;
+		for (int i = 0; i < pageTypes.length; i++) {
+			if (pageTypes[i] == pageType) {
+				return stylesheets[i];
+			}
+		}
+		Stylesheet stylesheet = page.createStylesheet();
+		stylesheetPageTypes = ArrayTools.add(pageTypes, pageType);
+		stylesheets = ArrayTools.add(stylesheets, stylesheet);
+		return stylesheet;
+	}
 
-		// sets the default style,
-		// the attributes of the default style apply to a widget when no more specific rule is set.
-		// By default:
-		// - the color is white
-		// - the background draws nothing (the background is transparent)
-		// - the font to use is the medium-sized one
-		// - the alignment is horizontally and vertically centered
-		EditableStyle style = stylesheet.getDefaultStyle();
+	/**
+	 * Sets the default style of the application.
+	 *
+	 * <p>
+	 * The attributes of the default style apply to a widget when no more specific rule is set:
+	 * <ul>
+	 * <li>the color is white,</li>
+	 * <li>the background draws nothing (the background is transparent),</li>
+	 * <li>the font to use is the medium-sized one,</li>
+	 * <li>the alignment is horizontally and vertically centered.</li>
+	 * </ul>
+	 *
+	 * @param style
+	 *            the default style of a stylesheet.
+	 */
+	public static void populateDefaultStyle(EditableStyle style) {
 		style.setColor(Colors.WHITE);
 		style.setBackground(NoBackground.NO_BACKGROUND);
 		style.setFont(Fonts.getMediumFont());
 		style.setHorizontalAlignment(Alignment.HCENTER);
 		style.setVerticalAlignment(Alignment.VCENTER);
-
-		return stylesheet;
 	}
 
 	/**
 	 * Creates an event dispatcher that can dispatch the pointer events sent by the touch screen and the command events
 	 * sent by the physical button.
 	 *
+	 * <p>
+	 * The drag events are coalesced so that the widgets handle only the latest position of the pointer.
+	 *
 	 * @param desktop
 	 *            the desktop to bind the event dispatcher to.
 	 * @return a new event dispatcher.
 	 */
 	private static EventDispatcher newEventDispatcher(final Desktop desktop) {
-		return new PointerEventDispatcher(desktop) {
+		CoalescingPointerEventDispatcher dispatcher = new CoalescingPointerEventDispatcher(desktop) {
 
 			@Override
 			public boolean dispatchEvent(int event) {
 				// dispatches the events generated by the physical button to the root widget of the desktop
 				if (Event.getType(event) == Command.EVENT_TYPE) {
+					dispatchPendingDrag();
 					if (!desktop.getWidget().handleEvent(event)) {
 						// the physical button has been pressed, shows the application menu
 						Main.showApplicationMenu();
@@ -161,6 +374,8 @@ public class Main {
 				return super.dispatchEvent(event);
 			}
 		};
+		eventDispatcher = dispatcher;
+		return dispatcher;
 	}
 
 }
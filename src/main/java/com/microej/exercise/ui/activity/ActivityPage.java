@@ -10,6 +10,7 @@ import com.microej.exercise.ui.Main;
 import com.microej.exercise.ui.activity.widget.Progress;
 import com.microej.exercise.ui.style.ClassIdentifiers;
 import com.microej.exercise.ui.style.Fonts;
+import com.microej.exercise.ui.util.HeapSizes;
 import com.microej.exercise.ui.util.Model;
 import com.microej.exercise.ui.util.Page;
 import ej.microui.display.Colors;
@@ -32,10 +33,30 @@ public class ActivityPage extends Page {
 	private static final int BONDI_DARKER = 0x253d43;
 	private static final int BONDI = 0x008eaa;
 
+	// Fields of the dock (its orientation and its first, center and last children), of the label (its text) and of the
+	// progress widget (its value, goal, flag, animator and animation).
+	private static final int DOCK_FIELDS = 4;
+	private static final int DOCK_CHILDREN = 3;
+	private static final int LABEL_FIELDS = 1;
+	private static final int PROGRESS_FIELDS = 5;
+
+	// Fields of the animation of the progress (its animator, motion, start time, duration and state) and of its motion
+	// (its function, start and stop values, and duration).
+	private static final int ANIMATION_FIELDS = 6;
+	private static final int MOTION_FIELDS = 4;
+
 	private Progress activityProgress;
 
 	@Override
-	public Widget getWidget() {
+	public int getHeapSize() {
+		// a dock, a label and the progress widget with its animation and motion
+		return HeapSizes.getContainerSize(DOCK_FIELDS, DOCK_CHILDREN) + HeapSizes.getWidgetSize(LABEL_FIELDS)
+				+ HeapSizes.getWidgetSize(PROGRESS_FIELDS) + HeapSizes.getObjectSize(ANIMATION_FIELDS)
+				+ HeapSizes.getObjectSize(MOTION_FIELDS);
+	}
+
+	@Override
+	protected Widget createWidget() {
 		SimpleDock dock = new SimpleDock(LayoutOrientation.VERTICAL);
 		dock.addClassSelector(ClassIdentifiers.ACTIVITY);
 
@@ -9,21 +9,27 @@ package com.microej.exercise.ui.applicationmenu;
 import com.microej.exercise.ui.Main;
 import com.microej.exercise.ui.activity.ActivityPage;
 import com.microej.exercise.ui.applicationmenu.widget.ApplicationList;
+import com.microej.exercise.ui.applicationmenu.widget.ApplicationListAdapter;
 import com.microej.exercise.ui.applicationmenu.widget.ApplicationListItem;
 import com.microej.exercise.ui.stubapplication.StubApplicationPage;
+import com.microej.exercise.ui.style.ClassIdentifiers;
+import com.microej.exercise.ui.style.FlatStylesheet;
+import com.microej.exercise.ui.util.HeapSizes;
 import com.microej.exercise.ui.util.Model;
 import com.microej.exercise.ui.util.Page;
+import ej.annotation.Nullable;
 import ej.bon.Immutables;
 import ej.microui.display.Colors;
+import ej.microui.display.Image;
 import ej.mwt.Widget;
 import ej.mwt.style.EditableStyle;
 import ej.mwt.style.background.NoBackground;
 import ej.mwt.style.background.RectangularBackground;
 import ej.mwt.style.outline.FlexibleOutline;
+import ej.mwt.stylesheet.Stylesheet;
 import ej.mwt.stylesheet.cascading.CascadingStylesheet;
 import ej.mwt.stylesheet.selector.TypeSelector;
 import ej.mwt.util.Alignment;
-import ej.widget.basic.OnClickListener;
 
 /**
  * A page that represents the application menu, where the user can launch applications.
@@ -39,13 +45,70 @@ public class ApplicationMenuPage extends Page {
 	 */
 	private static final String[] APPLICATIONS_ICONS = (String[]) Immutables.get("applicationIcons"); //$NON-NLS-1$
 
+	// Fields of the adapter of the list: the icons and the enclosing page.
+	private static final int ADAPTER_FIELDS = 2;
+
+	@Nullable
+	private ApplicationList list;
+
+	@Override
+	public int getHeapSize() {
+		// the list with its pool of items, its tables and the adapter with the icons it binds
+		int count = APPLICATIONS_ICONS.length;
+		int adapterSize = HeapSizes.getObjectSize(ADAPTER_FIELDS) + HeapSizes.getArraySize(count, HeapSizes.FIELD_SIZE)
+				+ count * HeapSizes.getImageSize();
+		ApplicationList list = this.list;
+		return list != null ? adapterSize + list.getHeapSize() : 0;
+	}
+
 	@Override
-	public Widget getWidget() {
+	public int getImagesHeapSize() {
+		// the list keeps the image of its scroll bar track while it is detached
+		ApplicationList list = this.list;
+		return list != null ? list.getImagesHeapSize() : 0;
+	}
+
+	@Override
+	protected Widget createWidget() {
 		// retrieves the business model
 		final Model model = Model.getInstance();
 
-		// creates the widget that represents the list of applications
-		ApplicationList list = new ApplicationList(model.getSelectedApplicationIndex()) {
+		// resolves the icons once, the items are bound to them again and again while scrolling
+		int count = APPLICATIONS_ICONS.length;
+		final Image[] icons = new Image[count];
+		for (int i = 0; i < count; i++) {
+			icons[i] = Image.getImage(APPLICATIONS_ICONS[i]);
+		}
+
+		// creates the widget that represents the list of applications, the list creates the widgets of the visible
+		// items only and binds them to the names and icons of the applications
+		ApplicationList list = new ApplicationList(model.getSelectedApplicationIndex(), new ApplicationListAdapter() {
+
+			@Override
+			public int getItemCount() {
+				return APPLICATIONS_NAMES.length;
+			}
+
+			@Override
+			public String getName(int index) {
+				return APPLICATIONS_NAMES[index];
+			}
+
+			@Override
+			public String getIconPath(int index) {
+				return APPLICATIONS_ICONS[index];
+			}
+
+			@Override
+			public Image getIcon(int index) {
+				return icons[index];
+			}
+
+			@Override
+			public void onItemClicked(int index) {
+				Main.showApplication(index);
+			}
+		}) {
 			@Override
 			protected void onHidden() {
 				super.onHidden();
@@ -53,51 +116,64 @@ public class ApplicationMenuPage extends Page {
 				model.setSelectedApplicationIndex(getSelectedIndex());
 			}
 		};
+		this.list = list;
+		return list;
+	}
 
-		// adds the activity page as the first one in the list
-		addActivityApplication(list);
-
-		// populates the rest of the list with stub applications
-		int applicationsCount = APPLICATIONS_NAMES.length;
-		for (int i = 1; i < applicationsCount; i++) {
-			final String iconPath = APPLICATIONS_ICONS[i];
-			final String name = APPLICATIONS_NAMES[i];
-			ApplicationListItem applicationListItem = new ApplicationListItem(iconPath, name, new OnClickListener() {
-
-				@Override
-				public void onClick() {
-					// shows a stub application page when the user clicks on the item
-					Main.showPage(new StubApplicationPage(iconPath, name));
-				}
-			});
-			list.addListItem(applicationListItem);
+	@Override
+	public void releaseWidget() {
+		// the list keeps its images while it is retained, frees them now that it is dropped
+		ApplicationList list = this.list;
+		if (list != null) {
+			list.dispose();
+			this.list = null;
 		}
-
-		return list;
+		super.releaseWidget();
 	}
 
-	private void addActivityApplication(ApplicationList list) {
-		OnClickListener listener = new OnClickListener() {
+	/**
+	 * Creates the page of an application of the menu.
+	 *
+	 * @param index
+	 *            the index of the application in the menu.
+	 * @return the page of the application.
+	 */
+	public static Page createApplicationPage(int index) {
+		if (index == 0) {
+			// the first item is the activity application
+			return new ActivityPage();
+		} else {
+			// the other items are stub applications
+			return new StubApplicationPage(APPLICATIONS_ICONS[index], APPLICATIONS_NAMES[index]);
+		}
+	}
 
-			@Override
-			public void onClick() {
-				// shows the activity page when the user clicks on the first item
-				Main.showPage(new ActivityPage());
-			}
-		};
-		ApplicationListItem activityItem = new ApplicationListItem(APPLICATIONS_ICONS[0], APPLICATIONS_NAMES[0],
-				listener);
-		list.addListItem(activityItem);
+	/**
+	 * Creates a {@link FlatStylesheet}: the widgets of the menu are styled by their type only, so their style is
+	 * resolved without cascading.
+	 */
+	@Override
+	public Stylesheet createStylesheet() {
+		FlatStylesheet stylesheet = new FlatStylesheet(ClassIdentifiers.COUNT);
+		Main.populateDefaultStyle(stylesheet.getDefaultStyle());
+		populateListStyle(stylesheet.getTypeStyle(ApplicationList.class));
+		populateItemStyle(stylesheet.getTypeStyle(ApplicationListItem.class));
+		return stylesheet;
 	}
 
 	@Override
 	public void populateStylesheet(CascadingStylesheet stylesheet) {
+		populateListStyle(stylesheet.getSelectorStyle(new TypeSelector(ApplicationList.class)));
+		populateItemStyle(stylesheet.getSelectorStyle(new TypeSelector(ApplicationListItem.class)));
+	}
+
+	private static void populateListStyle(EditableStyle style) {
 		// defines the style of the application list
-		EditableStyle style = stylesheet.getSelectorStyle(new TypeSelector(ApplicationList.class));
 		style.setBackground(new RectangularBackground(Colors.BLACK));
+	}
 
+	private static void populateItemStyle(EditableStyle style) {
 		// defines the style of the items of the application list
-		style = stylesheet.getSelectorStyle(new TypeSelector(ApplicationListItem.class));
 		style.setColor(0xbbbbbb);
 		style.setPadding(new FlexibleOutline(0, 0, 0, 30));
 		style.setBackground(NoBackground.NO_BACKGROUND);
@@ -105,6 +181,8 @@ public class ApplicationMenuPage extends Page {
 		style.setVerticalAlignment(Alignment.VCENTER);
 		style.setExtraFloat(ApplicationListItem.SPLIT_RATIO_STYLE, 0.425f);
 		style.setExtraInt(ApplicationListItem.SPACING_STYLE, 20);
+		// the background of the list, the icons and names are pre-rendered on it
+		style.setExtraInt(ApplicationListItem.BACKGROUND_COLOR_STYLE, Colors.BLACK);
 	}
 
 }
@@ -7,30 +7,54 @@
 package com.microej.exercise.ui.applicationmenu.widget;
 
 import com.microej.exercise.ui.Main;
+import com.microej.exercise.ui.util.HeapSizes;
 import ej.annotation.Nullable;
+import ej.bon.Constants;
 import ej.bon.XMath;
 import ej.drawing.ShapePainter;
 import ej.drawing.ShapePainter.Cap;
+import ej.microui.display.BufferedImage;
 import ej.microui.display.Colors;
+import ej.microui.display.Display;
 import ej.microui.display.GraphicsContext;
+import ej.microui.display.Painter;
 import ej.microui.event.Event;
+import ej.microui.event.generator.Buttons;
 import ej.microui.event.generator.Command;
 import ej.microui.event.generator.Pointer;
 import ej.mwt.Container;
 import ej.mwt.Widget;
+import ej.mwt.style.Style;
 import ej.mwt.util.Size;
+import ej.widget.basic.OnClickListener;
 import ej.widget.swipe.SwipeEventHandler;
 import ej.widget.swipe.Swipeable;
 
 /**
  * A container that contains a list of widgets that can be scrolled vertically.
+ *
+ * <p>
+ * The list is virtualized: it holds a small pool of item widgets, bound to the data provided by an
+ * {@link ApplicationListAdapter}. Only the items that are visible (whose magnification is not null) are bound, laid
+ * out and rendered, so the cost of a scroll does not depend on the number of items.
+ *
+ * <p>
+ * Scrolling the list allocates no object: the item widgets, the swipe event handler and the images are kept while the
+ * size of the list does not change. The allocations can be verified with the
+ * <code>com.microej.exercise.ui.applicationlist.debug.allocations.enabled</code> constant, the list then prints the
+ * number of bytes allocated during the scroll frames when it is hidden.
  */
 public class ApplicationList extends Container implements Swipeable {
 
+	private static final String DEBUG_ALLOCATIONS = "com.microej.exercise.ui.applicationlist.debug.allocations.enabled"; //$NON-NLS-1$
+
 	private static final int POSITION_OVERFLOW_MULTIPLIER = 4;
 	private static final float MAGNIFY_RATIO = 1.8f;
 	private static final float MINIMAL_RATIO = 0.1f;
 
+	/** The magnification tables are indexed by the distance to the center divided by 2^DISTANCE_SHIFT. */
+	private static final int DISTANCE_SHIFT = 1;
+
 	private static final int ARC_SPACING = 20;
 	private static final int ARC_THICKNESS = 6;
 	private static final int ARC_FADE = 1;
@@ -39,35 +63,133 @@ public class ApplicationList extends Container implements Swipeable {
 	private static final float ARC_CURSOR_ANGLE = 5.0f;
 	private static final int ARC_BACKGROUND_COLOR = 0x777777;
 	private static final int ARC_CURSOR_COLOR = Colors.WHITE;
+	/** The margin around the center line of an arc that contains its thickness, fade and caps. */
+	private static final int ARC_MARGIN = ARC_THICKNESS / 2 + ARC_FADE + 1;
+	/** The angle of the top of the circle of the arcs, the table of the arc points goes from its opposite to it. */
+	private static final int RIGHT_ANGLE = 90;
+
+	private static final int BITS_PER_BYTE = 8;
+
+	/** The number of item widgets, greater than the number of items visible at the same time. */
+	private static final int ITEM_POOL_SIZE = 8;
+
+	// Fields of the list (two longs count twice), of an item, of the click listener of an item (its slot and the list),
+	// and of the swipe event handler with the helper objects it keeps (drag state, velocity and animation).
+	private static final int LIST_FIELDS = 33;
+	private static final int ITEM_FIELDS = 8;
+	private static final int LISTENER_FIELDS = 2;
+	private static final int SWIPE_HANDLER_FIELDS = 24;
+
+	/** The free memory value meaning that the allocations are not measured until the next frame. */
+	private static final long NO_MEMORY_BASELINE = -1;
+
+	private final ApplicationListAdapter adapter;
+
+	// Item widgets, the item at index i is bound to the widget at slot i % pool size when it is visible.
+	private final ApplicationListItem[] items;
+	private final int[] boundIndices;
+	private final boolean[] activeItems;
 
 	@Nullable
 	private SwipeEventHandler swipeEventHandler;
+	private int handlerItemCount;
+	private int handlerItemHeight;
+
+	// IDs of the icons of all the items in the cache of the scaled icons, resolved once when the list is created.
+	private final int[] iconIds;
+
+	// Names of all the items, shared with the next lists that show the same names.
+	@Nullable
+	private TextAtlas textAtlas;
 
 	private int selectedIndex;
 	private int widgetHeight;
 
+	// Magnification of the items depending on their distance to the center, for the current content size.
+	private char[] scaleTable;
+	private short[] offsetTable;
+	private int tablesWidth;
+	private int tablesHeight;
+
+	// Scroll bar track, rendered once per content size, and its bounds relative to the content.
+	@Nullable
+	private BufferedImage trackImage;
+	private int trackX;
+	private int trackY;
+
+	// Vertical coordinates of the points of the scroll bar circle relative to the content, indexed by their angle in
+	// degrees (from -RIGHT_ANGLE to RIGHT_ANGLE), to bound the cursor without trigonometry at each frame.
+	private short[] arcYs;
+
+	// Areas to render again after a move, relative to the content: the items, and the cursor on the track.
+	private int dirtyLeft;
+	private int dirtyTop;
+	private int dirtyRight;
+	private int dirtyBottom;
+	private int cursorDirtyTop;
+	private int cursorDirtyBottom;
+
 	private int position;
 
+	// Allocations measured between the scroll frames, when the debug constant is enabled.
+	private long lastFreeMemory;
+	private int scrollFrames;
+	private int allocatingFrames;
+	private int unknownFrames;
+	private long allocatedBytes;
+
 	/**
 	 * Creates a list with the item at given index as the selected item.
 	 *
 	 * @param selectedIndex
 	 *            the index of the selected item (0-based) when opening the carousel.
+	 * @param adapter
+	 *            the adapter that provides the data of the items.
 	 */
-	public ApplicationList(int selectedIndex) {
+	public ApplicationList(int selectedIndex, ApplicationListAdapter adapter) {
 		super(true);
 		this.selectedIndex = selectedIndex;
+		this.adapter = adapter;
+		this.scaleTable = new char[0];
+		this.offsetTable = new short[0];
+		this.arcYs = new short[0];
+		this.lastFreeMemory = NO_MEMORY_BASELINE;
+
+		int itemCount = adapter.getItemCount();
+		int[] iconIds = new int[itemCount];
+		for (int i = 0; i < itemCount; i++) {
+			iconIds[i] = ScaledIconCache.getIconId(adapter.getIconPath(i));
+		}
+		this.iconIds = iconIds;
+
+		int poolSize = Math.min(ITEM_POOL_SIZE, itemCount);
+		this.items = new ApplicationListItem[poolSize];
+		this.boundIndices = new int[poolSize];
+		this.activeItems = new boolean[poolSize];
+		for (int i = 0; i < poolSize; i++) {
+			final int slot = i;
+			OnClickListener listener = new OnClickListener() {
+				@Override
+				public void onClick() {
+					ApplicationList.this.adapter.onItemClicked(ApplicationList.this.boundIndices[slot]);
+				}
+			};
+			// binds the items to the first indices, to compute the size of the items
+			ApplicationListItem item = new ApplicationListItem(adapter.getIcon(i), iconIds[i], adapter.getName(i),
+					listener);
+			this.items[i] = item;
+			this.boundIndices[i] = i;
+			super.addChild(item);
+		}
 	}
 
 	/**
-	 * Adds a list item.
+	 * Gets the number of items in the list.
 	 *
-	 * @param item
-	 *            the list item to add.
-	 * @see #addChild(Widget)
+	 * @return the items count.
 	 */
-	public void addListItem(ApplicationListItem item) {
-		super.addChild(item);
+	public int getItemCount() {
+		return this.adapter.getItemCount();
 	}
 
 	@Override
@@ -78,6 +200,75 @@ public class ApplicationList extends Container implements Swipeable {
 		if (eventHandler != null) {
 			eventHandler.stop();
 		}
+
+		if (Constants.getBoolean(DEBUG_ALLOCATIONS)) {
+			printAllocations();
+		}
+	}
+
+	/**
+	 * Releases the images held by the list, when it is not shown anymore and is about to be dropped.
+	 *
+	 * <p>
+	 * The list is kept with its images while it is detached, so that it is shown again without rendering them. This
+	 * method must be called once the list is not going to be shown again, to free the images heap. If the list is shown
+	 * again anyway, its images are created again at the next layout.
+	 */
+	public void dispose() {
+		closeTrackImage();
+		// the track image is created again with the magnification tables
+		this.tablesWidth = 0;
+		this.tablesHeight = 0;
+	}
+
+	/**
+	 * Gets the size of the images heap kept by the list while it is detached: the image of the scroll bar track.
+	 *
+	 * <p>
+	 * Before the list is laid out, the size is the one of a list as wide as the display.
+	 *
+	 * @return the images heap size of the list, in bytes.
+	 */
+	public int getImagesHeapSize() {
+		Display display = Display.getDisplay();
+		BufferedImage trackImage = this.trackImage;
+		int pixels;
+		if (trackImage != null) {
+			pixels = trackImage.getWidth() * trackImage.getHeight();
+		} else {
+			int diameter = getArcDiameter(display.getWidth());
+			if (diameter <= 0) {
+				return 0;
+			}
+			int radius = diameter / 2;
+			pixels = getTrackWidth(radius) * getTrackHeight(radius);
+		}
+		return pixels * display.getPixelDepth() / BITS_PER_BYTE;
+	}
+
+	/**
+	 * Gets the size of the Java heap kept by the list while it is detached: the list, its pool of items with their
+	 * click listeners and the objects of their text images, its swipe event handler and its tables.
+	 *
+	 * <p>
+	 * The sizes of the tables are the ones of the last layout.
+	 *
+	 * @return the heap size of the list, in bytes.
+	 */
+	public int getHeapSize() {
+		int poolSize = this.items.length;
+		int itemSize = HeapSizes.getWidgetSize(ITEM_FIELDS) + HeapSizes.getObjectSize(LISTENER_FIELDS)
+				+ HeapSizes.getImageSize();
+		int heapSize = HeapSizes.getContainerSize(LIST_FIELDS, poolSize) + poolSize * itemSize
+				+ HeapSizes.getObjectSize(SWIPE_HANDLER_FIELDS) + HeapSizes.getImageSize();
+		// the items, their bound indices and their active flags
+		heapSize += HeapSizes.getArraySize(poolSize, HeapSizes.FIELD_SIZE) * 2 + HeapSizes.getArraySize(poolSize, 1);
+		heapSize += HeapSizes.getArraySize(this.iconIds.length, HeapSizes.FIELD_SIZE);
+		// the magnification tables and the points of the scroll bar circle
+		heapSize += HeapSizes.getArraySize(this.scaleTable.length, HeapSizes.CHAR_SIZE)
+				+ HeapSizes.getArraySize(this.offsetTable.length, HeapSizes.CHAR_SIZE)
+				+ HeapSizes.getArraySize(this.arcYs.length, HeapSizes.CHAR_SIZE);
+		return heapSize;
 	}
 
 	/**
@@ -100,14 +291,15 @@ public class ApplicationList extends Container implements Swipeable {
 		int width = boundsWidth;
 		int height = 0;
 
-		// Each child takes the full height and the width it needs when horizontal, the opposite when vertical.
-		for (Widget widget : getChildren()) {
+		// Each item takes the full height and the width it needs. The items of the pool are representative of the
+		// others since all the items have the same layout.
+		for (Widget widget : this.items) {
 			computeChildOptimalSize(widget, width, Widget.NO_CONSTRAINT);
 			width = Math.max(width, widget.getWidth());
 			height = Math.max(height, widget.getHeight());
 		}
 		this.widgetHeight = height;
-		height *= getChildrenCount();
+		height *= getItemCount();
 
 		if (computeWidth) {
 			size.setWidth(width);
@@ -120,15 +312,27 @@ public class ApplicationList extends Container implements Swipeable {
 
 	@Override
 	protected void layOutChildren(int contentWidth, int contentHeight) {
-		int widgetsCount = getChildrenCount();
+		if (contentWidth != this.tablesWidth || contentHeight != this.tablesHeight) {
+			buildMagnificationTables(contentWidth, contentHeight);
+			createTrackImage(contentWidth);
+		}
+		updateTextAtlas();
+
+		int widgetsCount = getItemCount();
 		this.selectedIndex = Math.min(this.selectedIndex, widgetsCount - 1);
 
 		if (widgetsCount > 0) {
 			int height = this.widgetHeight;
 			onMoveInternal(height * this.selectedIndex);
 
-			this.swipeEventHandler = new SwipeEventHandler(this, widgetsCount, height, false, true, false, this,
-					getDesktop().getAnimator());
+			// the handler is created again only when the items change
+			if (this.swipeEventHandler == null || widgetsCount != this.handlerItemCount
+					|| height != this.handlerItemHeight) {
+				this.swipeEventHandler = new SwipeEventHandler(this, widgetsCount, height, false, true, false, this,
+						getDesktop().getAnimator());
+				this.handlerItemCount = widgetsCount;
+				this.handlerItemHeight = height;
+			}
 			if (this.selectedIndex != -1) {
 				goTo(this.selectedIndex);
 			}
@@ -139,6 +343,11 @@ public class ApplicationList extends Container implements Swipeable {
 
 	@Override
 	public boolean handleEvent(int event) {
+		if (Constants.getBoolean(DEBUG_ALLOCATIONS) && Event.getType(event) == Pointer.EVENT_TYPE
+				&& Buttons.getAction(event) == Buttons.PRESSED) {
+			// the allocations made while the list was idle are not counted in the next frame
+			this.lastFreeMemory = NO_MEMORY_BASELINE;
+		}
 		SwipeEventHandler eventHandler = this.swipeEventHandler;
 		if (eventHandler != null && eventHandler.handleEvent(event)) {
 			return true;
@@ -167,7 +376,7 @@ public class ApplicationList extends Container implements Swipeable {
 	}
 
 	private void goToInternal(int index, long duration) {
-		int widgetsCount = getChildrenCount();
+		int widgetsCount = getItemCount();
 		if (index < 0 || index >= widgetsCount) {
 			throw new IllegalArgumentException();
 		}
@@ -178,32 +387,118 @@ public class ApplicationList extends Container implements Swipeable {
 			return;
 		}
 
-		int size = 0;
-		int currentIndex = 0;
-		Widget[] children = getChildren();
-		for (int i = 0; i < children.length; i++) {
-			if (currentIndex == index) {
-				if (duration == 0) {
-					eventHandler.moveTo(size);
-				} else {
-					eventHandler.moveTo(size, duration);
-				}
-				break;
-			}
-			currentIndex++;
-
-			size += this.widgetHeight;
+		int size = index * this.widgetHeight;
+		if (duration == 0) {
+			eventHandler.moveTo(size);
+		} else {
+			eventHandler.moveTo(size, duration);
 		}
 	}
 
 	@Override
 	public synchronized void onMove(final int position) {
+		if (Constants.getBoolean(DEBUG_ALLOCATIONS)) {
+			countAllocations();
+		}
+
+		// renders again the area of the items and the area of the cursor, before and after the move, as two regions:
+		// their union would also cover the items and the track between them
+		this.dirtyLeft = Integer.MAX_VALUE;
+		this.dirtyTop = Integer.MAX_VALUE;
+		this.dirtyRight = Integer.MIN_VALUE;
+		this.dirtyBottom = Integer.MIN_VALUE;
+		this.cursorDirtyTop = Integer.MAX_VALUE;
+		this.cursorDirtyBottom = Integer.MIN_VALUE;
+		addMovingBounds();
 		onMoveInternal(position);
-		requestRender();
+		addMovingBounds();
+		int contentX = getContentX();
+		int contentY = getContentY();
+		if (this.dirtyLeft < this.dirtyRight && this.dirtyTop < this.dirtyBottom) {
+			requestRender(contentX + this.dirtyLeft, contentY + this.dirtyTop, this.dirtyRight - this.dirtyLeft,
+					this.dirtyBottom - this.dirtyTop);
+		}
+		BufferedImage trackImage = this.trackImage;
+		if (trackImage != null && this.cursorDirtyTop < this.cursorDirtyBottom) {
+			// the cursor moves vertically on the track, it stays in the horizontal bounds of the track
+			requestRender(contentX + this.trackX, contentY + this.cursorDirtyTop, trackImage.getWidth(),
+					this.cursorDirtyBottom - this.cursorDirtyTop);
+		}
+	}
+
+	/**
+	 * Counts the memory allocated since the previous scroll frame.
+	 *
+	 * <p>
+	 * The measure includes the allocations of the other threads. A free memory that grows means that the garbage
+	 * collector ran: the allocations of the frame are then unknown, the frame is counted apart.
+	 */
+	private void countAllocations() {
+		long freeMemory = Runtime.getRuntime().freeMemory();
+		long lastFreeMemory = this.lastFreeMemory;
+		if (lastFreeMemory != NO_MEMORY_BASELINE) {
+			this.scrollFrames++;
+			long allocated = lastFreeMemory - freeMemory;
+			if (allocated < 0) {
+				this.unknownFrames++;
+			} else if (allocated > 0) {
+				this.allocatingFrames++;
+				this.allocatedBytes += allocated;
+			}
+		}
+		this.lastFreeMemory = freeMemory;
+	}
+
+	private void printAllocations() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("[applicationlist] scroll frames=").append(this.scrollFrames); //$NON-NLS-1$
+		builder.append(" allocating frames=").append(this.allocatingFrames); //$NON-NLS-1$
+		builder.append(" unknown frames=").append(this.unknownFrames); //$NON-NLS-1$
+		builder.append(" allocated bytes=").append(this.allocatedBytes); //$NON-NLS-1$
+		System.out.println(builder.toString());
+		this.scrollFrames = 0;
+		this.allocatingFrames = 0;
+		this.unknownFrames = 0;
+		this.allocatedBytes = 0;
+		this.lastFreeMemory = NO_MEMORY_BASELINE;
+	}
+
+	private void addMovingBounds() {
+		ApplicationListItem[] items = this.items;
+		boolean[] activeItems = this.activeItems;
+		for (int i = 0; i < items.length; i++) {
+			if (activeItems[i]) {
+				ApplicationListItem item = items[i];
+				addDirtyArea(item.getX(), item.getY(), item.getX() + item.getWidth(), item.getY() + item.getHeight());
+			}
+		}
+		if (this.trackImage != null) {
+			// the angles are rounded outward, the margin covers the rounding of the coordinates
+			float cursorAngle = -getCursorAngle();
+			int cursorTop = getArcY((int) Math.ceil(cursorAngle + ARC_CURSOR_ANGLE)) - ARC_MARGIN;
+			int cursorBottom = getArcY((int) Math.floor(cursorAngle)) + ARC_MARGIN + 1;
+			this.cursorDirtyTop = Math.min(this.cursorDirtyTop, cursorTop);
+			this.cursorDirtyBottom = Math.max(this.cursorDirtyBottom, cursorBottom);
+		}
+	}
+
+	/**
+	 * Gets the vertical coordinate of the point of the scroll bar circle at the given angle, relative to the content.
+	 */
+	private int getArcY(int angle) {
+		short[] arcYs = this.arcYs;
+		return arcYs[XMath.limit(angle + RIGHT_ANGLE, 0, arcYs.length - 1)];
+	}
+
+	private void addDirtyArea(int left, int top, int right, int bottom) {
+		this.dirtyLeft = Math.min(this.dirtyLeft, left);
+		this.dirtyTop = Math.min(this.dirtyTop, top);
+		this.dirtyRight = Math.max(this.dirtyRight, right);
+		this.dirtyBottom = Math.max(this.dirtyBottom, bottom);
 	}
 
 	private void onMoveInternal(int position) {
-		int widgetsCount = getChildrenCount();
+		int widgetsCount = getItemCount();
 		int widgetHeight = this.widgetHeight;
 		int totalHeight = widgetsCount * widgetHeight;
 		position = computePosition(position, totalHeight);
@@ -217,32 +512,88 @@ public class ApplicationList extends Container implements Swipeable {
 		selectedIndex = XMath.limit(selectedIndex, 0, widgetsCount - 1);
 		int remaining = (selectedIndex * widgetHeight) - position;
 		int selectedY = center - widgetHalfHeight + remaining;
-		Widget[] children = getChildren();
+
+		// the items are deactivated, then only the visible ones are bound and laid out
+		boolean[] activeItems = this.activeItems;
+		int poolSize = activeItems.length;
+		for (int i = 0; i < poolSize; i++) {
+			activeItems[i] = false;
+		}
+		int activeCount = 0;
 
 		int y = selectedY;
-		for (int i = selectedIndex; i < widgetsCount; i++) {
-			ApplicationListItem widget = (ApplicationListItem) children[i];
+		for (int i = selectedIndex; i < widgetsCount && activeCount < poolSize; i++) {
 			int distanceToCenter = Math.abs((y + widgetHalfHeight) - center);
-			float percent = getPercent(distanceToCenter, height);
-			widget.setPercent(percent);
-			int x = (int) ((1f - percent) * width * (1f - percent));
-			layOutChild(widget, x, y, width, widgetHeight);
+			int scale = getScale(distanceToCenter);
+			if (scale == 0) {
+				// the next items are farther from the center
+				break;
+			}
+			layOutItem(i, distanceToCenter, y, width, widgetHeight);
+			activeCount++;
 			y += widgetHeight;
 		}
 		y = selectedY;
-		for (int i = selectedIndex - 1; i >= 0; i--) {
-			ApplicationListItem widget = (ApplicationListItem) children[i];
+		for (int i = selectedIndex - 1; i >= 0 && activeCount < poolSize; i--) {
 			int distanceToCenter = Math.abs((y - widgetHalfHeight) - center);
-			float percent = getPercent(distanceToCenter, height);
-			widget.setPercent(percent);
-			int x = (int) ((1f - percent) * width * (1f - percent));
+			int scale = getScale(distanceToCenter);
+			if (scale == 0) {
+				// the previous items are farther from the center
+				break;
+			}
 			y -= widgetHeight;
-			layOutChild(widget, x, y, width, widgetHeight);
+			layOutItem(i, distanceToCenter, y, width, widgetHeight);
+			activeCount++;
+		}
+
+		// moves the inactive items out of the list, so that they do not receive the events
+		ApplicationListItem[] items = this.items;
+		for (int i = 0; i < poolSize; i++) {
+			if (!activeItems[i]) {
+				items[i].setPosition(0, -widgetHeight);
+			}
 		}
 		this.selectedIndex = selectedIndex;
 		this.position = position;
 	}
 
+	private void layOutItem(int index, int distanceToCenter, int y, int width, int widgetHeight) {
+		int slot = index % this.items.length;
+		ApplicationListItem widget = this.items[slot];
+		if (this.boundIndices[slot] != index) {
+			ApplicationListAdapter adapter = this.adapter;
+			widget.bind(adapter.getIcon(index), this.iconIds[index], adapter.getName(index));
+			widget.setTextAtlas(this.textAtlas, index);
+			this.boundIndices[slot] = index;
+		}
+		this.activeItems[slot] = true;
+		int tableIndex = distanceToCenter >> DISTANCE_SHIFT;
+		widget.setScale(this.scaleTable[tableIndex]);
+		layOutChild(widget, this.offsetTable[tableIndex], y, width, widgetHeight);
+	}
+
+	/**
+	 * Gets the atlas of the names of the items and gives it to the items.
+	 *
+	 * <p>
+	 * The items all have the same style, the atlas is drawn with the font and colors of the first one. The atlas is
+	 * not closed when the list is detached: it is reused by the next list that shows the same names.
+	 */
+	private void updateTextAtlas() {
+		ApplicationListItem[] items = this.items;
+		if (items.length == 0) {
+			return;
+		}
+		Style style = items[0].getStyle();
+		TextAtlas atlas = TextAtlas.getAtlas(this.adapter, style.getFont(), style.getColor(),
+				ApplicationListItem.getBackgroundColor(style));
+		this.textAtlas = atlas;
+		int[] boundIndices = this.boundIndices;
+		for (int i = 0; i < items.length; i++) {
+			items[i].setTextAtlas(atlas, boundIndices[i]);
+		}
+	}
+
 	private int computePosition(int position, int totalHeight) {
 		if (position < 0) {
 			position /= POSITION_OVERFLOW_MULTIPLIER;
@@ -253,6 +604,38 @@ public class ApplicationList extends Container implements Swipeable {
 		return position;
 	}
 
+	/**
+	 * Builds the tables of the scale and of the horizontal offset of the items, indexed by their distance to the
+	 * center.
+	 *
+	 * <p>
+	 * The tables stop at the first distance where the item is not visible anymore, the farther items are not visible
+	 * either.
+	 */
+	private void buildMagnificationTables(int width, int height) {
+		int length = 0;
+		while (getPercent(length << DISTANCE_SHIFT, height) > 0) {
+			length++;
+		}
+		char[] scaleTable = new char[length];
+		short[] offsetTable = new short[length];
+		for (int i = 0; i < length; i++) {
+			float percent = getPercent(i << DISTANCE_SHIFT, height);
+			scaleTable[i] = (char) (percent * ApplicationListItem.FULL_SCALE);
+			offsetTable[i] = (short) ((1f - percent) * width * (1f - percent));
+		}
+		this.scaleTable = scaleTable;
+		this.offsetTable = offsetTable;
+		this.tablesWidth = width;
+		this.tablesHeight = height;
+	}
+
+	private int getScale(int distanceToCenter) {
+		int tableIndex = distanceToCenter >> DISTANCE_SHIFT;
+		char[] scaleTable = this.scaleTable;
+		return tableIndex < scaleTable.length ? scaleTable[tableIndex] : 0;
+	}
+
 	private float getPercent(int distanceToCenter, int height) {
 		float percent = (float) Math.cos(distanceToCenter * Math.PI / (MAGNIFY_RATIO * height));
 		percent = XMath.limit(percent, 0, 1);
@@ -266,31 +649,114 @@ public class ApplicationList extends Container implements Swipeable {
 	protected void renderContent(GraphicsContext g, int contentWidth, int contentHeight) {
 		drawScrollBar(g, contentWidth);
 
-		// Draw the children of this container (the items)
-		super.renderContent(g, contentWidth, contentHeight);
+		// Draw the visible items only
+		ApplicationListItem[] items = this.items;
+		boolean[] activeItems = this.activeItems;
+		for (int i = 0; i < items.length; i++) {
+			if (activeItems[i]) {
+				renderChild(items[i], g);
+			}
+		}
 	}
 
 	private void drawScrollBar(GraphicsContext g, int contentWidth) {
+		BufferedImage trackImage = this.trackImage;
+		if (trackImage == null || !intersectsClip(g, this.trackX, this.trackY, trackImage.getWidth(),
+				trackImage.getHeight())) {
+			// the scroll bar is not in the area to render
+			return;
+		}
+
+		// draw the bar background
+		Painter.drawImage(g, trackImage, this.trackX, this.trackY);
+
+		// draw the bar cursor
+		g.setColor(ARC_CURSOR_COLOR);
+		g.setBackgroundColor(ARC_BACKGROUND_COLOR);
+		ShapePainter.drawThickFadedCircleArc(g, 0, ARC_SPACING, getArcDiameter(contentWidth), -getCursorAngle(),
+				ARC_CURSOR_ANGLE, ARC_THICKNESS, ARC_FADE, ARC_CAPS, ARC_CAPS);
+		g.removeBackgroundColor();
+	}
+
+	private float getCursorAngle() {
 		int position = this.position;
-		int widgetsCount = getChildrenCount();
+		int widgetsCount = getItemCount();
 		int height = this.widgetHeight;
 		int totalHeight = (widgetsCount - 1) * height;
 
 		position = computePosition(position, totalHeight);
 
-		// draw the bar background
+		return (2 * ARC_BACKGROUND_ANGLE - ARC_CURSOR_ANGLE) * position / totalHeight
+				- (ARC_BACKGROUND_ANGLE - ARC_CURSOR_ANGLE);
+	}
+
+	private static int getArcDiameter(int contentWidth) {
+		return contentWidth - 2 * ARC_SPACING;
+	}
+
+	/**
+	 * Renders the background of the scroll bar (the track) in an image, so that it is drawn with a simple copy at each
+	 * frame rather than with the anti-aliased arc drawing.
+	 */
+	private void createTrackImage(int contentWidth) {
+		closeTrackImage();
+
+		// bounds of the arc, from -ARC_BACKGROUND_ANGLE to ARC_BACKGROUND_ANGLE around the right of the circle
+		int diameter = getArcDiameter(contentWidth);
+		if (diameter <= 0) {
+			return;
+		}
+		int radius = diameter / 2;
+		int centerY = ARC_SPACING + radius;
+		int width = getTrackWidth(radius);
+		int height = getTrackHeight(radius);
+		int left = 2 * radius + ARC_MARGIN + 1 - width;
+		int top = centerY - height / 2;
+
+		BufferedImage image = new BufferedImage(width, height);
+		GraphicsContext g = image.getGraphicsContext();
+		// the list background is black
+		g.setColor(Colors.BLACK);
+		Painter.fillRectangle(g, 0, 0, width, height);
+		g.translate(-left, -top);
 		g.setColor(ARC_BACKGROUND_COLOR);
 		g.setBackgroundColor(Colors.BLACK);
-		ShapePainter.drawThickFadedCircleArc(g, 0, ARC_SPACING, contentWidth - 2 * ARC_SPACING, -ARC_BACKGROUND_ANGLE,
+		ShapePainter.drawThickFadedCircleArc(g, 0, ARC_SPACING, diameter, -ARC_BACKGROUND_ANGLE,
 				2 * ARC_BACKGROUND_ANGLE, ARC_THICKNESS, ARC_FADE, ARC_CAPS, ARC_CAPS);
+		this.trackImage = image;
+		this.trackX = left;
+		this.trackY = top;
+
+		// the cursor is bounded with the points of the circle, for the current radius
+		short[] arcYs = new short[2 * RIGHT_ANGLE + 1];
+		for (int i = 0; i < arcYs.length; i++) {
+			arcYs[i] = (short) (centerY - (int) (radius * Math.sin(Math.toRadians(i - RIGHT_ANGLE))));
+		}
+		this.arcYs = arcYs;
+	}
 
-		// draw the bar cursor
-		g.setColor(ARC_CURSOR_COLOR);
-		g.setBackgroundColor(ARC_BACKGROUND_COLOR);
-		float positionAngle = (2 * ARC_BACKGROUND_ANGLE - ARC_CURSOR_ANGLE) * position / totalHeight
-				- (ARC_BACKGROUND_ANGLE - ARC_CURSOR_ANGLE);
-		ShapePainter.drawThickFadedCircleArc(g, 0, ARC_SPACING, contentWidth - 2 * ARC_SPACING, -positionAngle,
-				ARC_CURSOR_ANGLE, ARC_THICKNESS, ARC_FADE, ARC_CAPS, ARC_CAPS);
-		g.removeBackgroundColor();
+	private static int getTrackWidth(int radius) {
+		double angle = Math.toRadians(ARC_BACKGROUND_ANGLE);
+		return radius - (int) (radius * Math.cos(angle)) + 2 * ARC_MARGIN + 1;
+	}
+
+	private static int getTrackHeight(int radius) {
+		double angle = Math.toRadians(ARC_BACKGROUND_ANGLE);
+		return 2 * ((int) Math.ceil(radius * Math.sin(angle)) + ARC_MARGIN) + 1;
+	}
+
+	private void closeTrackImage() {
+		BufferedImage image = this.trackImage;
+		if (image != null) {
+			image.close();
+			this.trackImage = null;
+		}
+	}
+
+	private static boolean intersectsClip(GraphicsContext g, int x, int y, int width, int height) {
+		int clipX = g.getClipX();
+		int clipY = g.getClipY();
+		return x < clipX + g.getClipWidth() && clipX < x + width && y < clipY + g.getClipHeight()
+				&& clipY < y + height;
 	}
 }
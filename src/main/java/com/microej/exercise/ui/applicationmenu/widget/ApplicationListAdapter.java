@@ -0,0 +1,69 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.applicationmenu.widget;
+
+import ej.microui.display.Image;
+
+/**
+ * Provides the data of the items of an {@link ApplicationList}.
+ *
+ * <p>
+ * The list creates only a few item widgets and binds them to the data of the items that are visible, so the adapter
+ * may be called for the same index several times while scrolling.
+ */
+public interface ApplicationListAdapter {
+
+	/**
+	 * Gets the number of items in the list.
+	 *
+	 * @return the items count.
+	 */
+	int getItemCount();
+
+	/**
+	 * Gets the name of an item.
+	 *
+	 * @param index
+	 *            the index of the item.
+	 * @return the name of the application.
+	 */
+	String getName(int index);
+
+	/**
+	 * Gets the path to the icon of an item.
+	 *
+	 * <p>
+	 * The path identifies the icon in the cache of the scaled icons, it is requested once per item when the list is
+	 * created.
+	 *
+	 * @param index
+	 *            the index of the item.
+	 * @return the path to the icon resource.
+	 */
+	String getIconPath(int index);
+
+	/**
+	 * Gets the icon of an item.
+	 *
+	 * <p>
+	 * The icon is requested each time an item widget is bound to the item while scrolling, it is expected to be
+	 * resolved once rather than loaded at each call.
+	 *
+	 * @param index
+	 *            the index of the item.
+	 * @return the icon image.
+	 */
+	Image getIcon(int index);
+
+	/**
+	 * Notifies that the user clicked on an item.
+	 *
+	 * @param index
+	 *            the index of the clicked item.
+	 */
+	void onItemClicked(int index);
+}
@@ -28,45 +28,109 @@ public class ApplicationListItem extends Widget {
 	/** The extra style field ID for the spacing. */
 	public static final int SPACING_STYLE = 1;
 
+	/**
+	 * The extra style field ID for the color of the background of the list behind the item: the scaled icons and the
+	 * name are pre-rendered on it.
+	 */
+	public static final int BACKGROUND_COLOR_STYLE = 2;
+
+	/** The number of fractional bits of the fixed-point scale of the item. */
+	public static final int SCALE_SHIFT = 15;
+
+	/** The fixed-point scale of an item at full size (i.e., at the center of the list). */
+	public static final int FULL_SCALE = 1 << SCALE_SHIFT;
+
 	private static final float DEFAULT_SPLIT_FACTOR = 0.5f;
 	private static final int IMAGE_TEXT_SPACING = 10;
 
-	private final String text;
+	private String text;
 
 	@Nullable
 	private BufferedImage textImage;
 
-	private final Image iconImage;
+	@Nullable
+	private TextAtlas textAtlas;
+
+	private int textIndex;
+
+	private int iconId;
+
+	private Image iconImage;
 
-	private float percent;
+	private int scale;
 
 	private final OnClickListener onClickListener;
 
 	/**
 	 * Creates a {@link ApplicationListItem} with the given icon and text.
 	 *
-	 * @param iconPath
-	 *            the path to the icon resource.
+	 * @param icon
+	 *            the icon of the application.
+	 * @param iconId
+	 *            the ID of the icon in the cache of the scaled icons.
 	 * @param name
 	 *            the name of the application.
 	 * @param listener
 	 *            the listener to notify when the user clicks on the item.
 	 */
-	public ApplicationListItem(final String iconPath, final String name, OnClickListener listener) {
+	ApplicationListItem(Image icon, int iconId, String name, OnClickListener listener) {
 		super(true);
-		this.iconImage = Image.getImage(iconPath);
+		this.iconId = iconId;
+		this.iconImage = icon;
 		this.text = name;
 		this.onClickListener = listener;
 	}
 
 	/**
-	 * Sets the percent of the position of the item.
+	 * Binds the item to another application.
 	 *
-	 * @param percent
-	 *            the percent to set.
+	 * <p>
+	 * The item has to be laid out again before being rendered.
+	 *
+	 * @param icon
+	 *            the icon of the application.
+	 * @param iconId
+	 *            the ID of the icon in the cache of the scaled icons.
+	 * @param name
+	 *            the name of the application.
 	 */
-	public void setPercent(float percent) {
-		this.percent = percent;
+	void bind(Image icon, int iconId, String name) {
+		this.iconId = iconId;
+		this.iconImage = icon;
+		if (!name.equals(this.text)) {
+			this.text = name;
+			// the image of the previous text is created again at the next layout
+			closeTextImage();
+		}
+	}
+
+	/**
+	 * Sets the atlas that holds the name of the item.
+	 *
+	 * <p>
+	 * When an atlas is set, the name is copied from the atlas rather than from an image of the item.
+	 *
+	 * @param atlas
+	 *            the atlas of the names of the list, or <code>null</code> to render the name in an image of the item.
+	 * @param index
+	 *            the index of the name of the item in the atlas.
+	 */
+	void setTextAtlas(@Nullable TextAtlas atlas, int index) {
+		this.textAtlas = atlas;
+		this.textIndex = index;
+		if (atlas != null) {
+			closeTextImage();
+		}
+	}
+
+	/**
+	 * Sets the scale of the item, depending on its position.
+	 *
+	 * @param scale
+	 *            the fixed-point scale to set, between <code>0</code> and {@link #FULL_SCALE}.
+	 */
+	public void setScale(int scale) {
+		this.scale = scale;
 	}
 
 	@Override
@@ -80,27 +144,31 @@ public class ApplicationListItem extends Widget {
 
 	@Override
 	protected void renderContent(GraphicsContext g, int contentWidth, int contentHeight) {
-		float percent = this.percent;
+		int scale = this.scale;
 		Style style = getStyle();
 
 		float splitFactor = style.getExtraFloat(SPLIT_RATIO_STYLE, DEFAULT_SPLIT_FACTOR);
 		int imageAreaWidth = (int) (contentWidth * splitFactor);
 
-		// draw the icon
-		Image image = this.iconImage;
+		// draw the pre-scaled icon that is the nearest to the scale of the item
+		Image image = ScaledIconCache.getIcon(this.iconId, this.iconImage, scale, getBackgroundColor(style));
 		int imageWidth = image.getWidth();
 		int imageHeight = image.getHeight();
-		int imageX = (int) ((1 - percent) * (imageAreaWidth - imageWidth) + (imageWidth - (imageWidth * percent)));
+		int imageX = ((FULL_SCALE - scale) * imageAreaWidth) >> SCALE_SHIFT;
 		int verticalAlignment = style.getVerticalAlignment();
-		int imageY = Alignment.computeTopY((int) (imageHeight * percent), 0, contentHeight, verticalAlignment);
+		int imageY = Alignment.computeTopY(imageHeight, 0, contentHeight, verticalAlignment);
 		Painter.drawImage(g, image, imageX, imageY);
 
 		// draw the name
-		g.setColor(style.getColor());
 		Font font = style.getFont();
 		int textX = imageX + imageWidth + IMAGE_TEXT_SPACING;
 		int textY = Alignment.computeTopY(font.getHeight(), 0, contentHeight, verticalAlignment);
-		Painter.drawImage(g, this.textImage, textX, textY);
+		TextAtlas atlas = this.textAtlas;
+		if (atlas != null) {
+			atlas.draw(g, this.textIndex, textX, textY);
+		} else {
+			Painter.drawImage(g, this.textImage, textX, textY);
+		}
 	}
 
 	@Override
@@ -121,7 +189,7 @@ public class ApplicationListItem extends Widget {
 	@Override
 	protected void onLaidOut() {
 		super.onLaidOut();
-		if (this.textImage == null) {
+		if (this.textAtlas == null && this.textImage == null) {
 			// create an image and draw the text into it
 			createTextImage();
 		}
@@ -135,8 +203,9 @@ public class ApplicationListItem extends Widget {
 	 * takes longer than drawing an image.
 	 *
 	 * <p>
-	 * The image is created once when the widget is first laid out. The image is closed and released when the widget is
-	 * detached from the widget hierarchy, to prevent the image to stay in memory.
+	 * The image is used only when the names of the list do not fit in a {@link TextAtlas}. It is created once when the
+	 * widget is first laid out, and again when the item is bound to another application. The image is closed and
+	 * released when the widget is detached from the widget hierarchy, to prevent the image to stay in memory.
 	 */
 	private void createTextImage() {
 		Style style = getStyle();
@@ -145,19 +214,34 @@ public class ApplicationListItem extends Widget {
 		int height = font.getHeight();
 		BufferedImage image = new BufferedImage(width, height);
 		GraphicsContext graphicsContext = image.getGraphicsContext();
-		graphicsContext.setColor(Colors.BLACK);
+		graphicsContext.setColor(getBackgroundColor(style));
 		Painter.fillRectangle(graphicsContext, 0, 0, width, height);
 		graphicsContext.setColor(style.getColor());
 		Painter.drawString(graphicsContext, this.text, font, 0, 0);
 		this.textImage = image;
 	}
 
+	/**
+	 * Gets the color of the background of the list behind the items, black by default.
+	 *
+	 * @param style
+	 *            the style of the items.
+	 * @return the background color.
+	 */
+	static int getBackgroundColor(Style style) {
+		return style.getExtraInt(BACKGROUND_COLOR_STYLE, Colors.BLACK);
+	}
+
 	@Override
 	protected void onDetached() {
 		super.onDetached();
+		// the widget has been detached from the widget hierarchy, release the image in memory.
+		closeTextImage();
+	}
+
+	private void closeTextImage() {
 		BufferedImage image = this.textImage;
 		if (image != null) {
-			// the widget has been detached from the widget hierarchy, release the image in memory.
 			image.close();
 			this.textImage = null;
 		}
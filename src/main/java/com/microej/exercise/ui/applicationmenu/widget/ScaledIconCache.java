@@ -0,0 +1,130 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.applicationmenu.widget;
+
+import com.microej.exercise.ui.util.ImageCache;
+import ej.basictool.ArrayTools;
+import ej.bon.Constants;
+import ej.drawing.TransformPainter;
+import ej.microui.MicroUIException;
+import ej.microui.display.BufferedImage;
+import ej.microui.display.Colors;
+import ej.microui.display.Display;
+import ej.microui.display.GraphicsContext;
+import ej.microui.display.Image;
+import ej.microui.display.Painter;
+
+/**
+ * A cache of the icons of the application list, scaled down at a few quantized steps.
+ *
+ * <p>
+ * Scaling an icon at each frame is too slow, so the items draw the pre-scaled icon that is the nearest to their scale.
+ * The scaled icons are rendered lazily, the first time they are needed, in an {@link ImageCache} shared by all the
+ * items and bounded by the images heap budget defined by the
+ * <code>com.microej.exercise.ui.applicationlist.icons.budget</code> constant.
+ *
+ * <p>
+ * The scaled icons are rendered on the background color of the items (see
+ * {@link ApplicationListItem#BACKGROUND_COLOR_STYLE}), in the format of the display, so that drawing them is a simple
+ * copy. The cache is cleared when another background color is requested.
+ */
+class ScaledIconCache {
+
+	private static final String BUDGET = "com.microej.exercise.ui.applicationlist.icons.budget"; //$NON-NLS-1$
+
+	/** The number of scale steps, the last step is the full size icon which is not cached. */
+	private static final int SCALE_STEPS = 4;
+
+	private static final int CACHE_CAPACITY = 32;
+
+	private static final int BITS_PER_BYTE = 8;
+
+	private static final ImageCache CACHE = new ImageCache(CACHE_CAPACITY, Constants.getInt(BUDGET));
+
+	// The paths of the icons, the index of a path identifies the icon in the keys of the cache.
+	private static String[] iconPaths = new String[0];
+
+	// The background color the cached icons are rendered on.
+	private static int backgroundColor = Colors.BLACK;
+
+	private ScaledIconCache() {
+		// static methods only
+	}
+
+	/**
+	 * Gets an icon scaled at the step that is the nearest to the given scale.
+	 *
+	 * @param iconId
+	 *            the ID of the icon, see {@link #getIconId(String)}.
+	 * @param icon
+	 *            the full size icon.
+	 * @param scale
+	 *            the fixed-point scale of the item, between <code>0</code> and {@link ApplicationListItem#FULL_SCALE}.
+	 * @param background
+	 *            the color of the background to render the scaled icon on.
+	 * @return the scaled icon, or the full size icon if the scale is near the full size or if the scaled icon does not
+	 *         fit in the cache.
+	 */
+	static Image getIcon(int iconId, Image icon, int scale, int background) {
+		int step = (scale * SCALE_STEPS + (ApplicationListItem.FULL_SCALE >> 1)) >> ApplicationListItem.SCALE_SHIFT;
+		step = Math.max(step, 1);
+		if (step >= SCALE_STEPS) {
+			return icon;
+		}
+
+		ImageCache cache = CACHE;
+		if (background != backgroundColor) {
+			// the icons of the cache are rendered on another background
+			cache.clear();
+			backgroundColor = background;
+		}
+		int key = iconId * SCALE_STEPS + step;
+		BufferedImage scaledIcon = cache.get(key);
+		if (scaledIcon == null) {
+			float factor = (float) step / SCALE_STEPS;
+			int width = Math.max((int) (icon.getWidth() * factor), 1);
+			int height = Math.max((int) (icon.getHeight() * factor), 1);
+			int size = width * height * Display.getDisplay().getPixelDepth() / BITS_PER_BYTE;
+			if (!cache.reserve(size)) {
+				return icon;
+			}
+			try {
+				scaledIcon = new BufferedImage(width, height);
+			} catch (MicroUIException e) {
+				// not enough room in the images heap: the full size icon is drawn
+				return icon;
+			}
+			GraphicsContext g = scaledIcon.getGraphicsContext();
+			g.setColor(background);
+			Painter.fillRectangle(g, 0, 0, width, height);
+			TransformPainter.drawScaledImageBilinear(g, icon, 0, 0, factor, factor);
+			cache.put(key, scaledIcon, size);
+		}
+		return scaledIcon;
+	}
+
+	/**
+	 * Gets the ID that identifies an icon in the cache.
+	 *
+	 * <p>
+	 * The ID is meant to be resolved once, when an item is bound to an icon, rather than at each rendering.
+	 *
+	 * @param iconPath
+	 *            the path of the icon.
+	 * @return the ID of the icon.
+	 */
+	static int getIconId(String iconPath) {
+		String[] iconPaths = ScaledIconCache.iconPaths;
+		for (int i = 0; i < iconPaths.length; i++) {
+			if (iconPaths[i].equals(iconPath)) {
+				return i;
+			}
+		}
+		ScaledIconCache.iconPaths = ArrayTools.add(iconPaths, iconPath);
+		return iconPaths.length;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.applicationmenu.widget;
+
+import ej.annotation.Nullable;
+import ej.bon.Constants;
+import ej.microui.display.BufferedImage;
+import ej.microui.display.Display;
+import ej.microui.display.Font;
+import ej.microui.display.GraphicsContext;
+import ej.microui.display.Painter;
+
+/**
+ * An image that holds the rendered names of all the items of an {@link ApplicationList}.
+ *
+ * <p>
+ * The names are packed in rows (shelves) of the height of the font, in a single {@link BufferedImage}. Drawing a name
+ * is a copy of a region of this image, which is faster than drawing the text, and the whole menu uses one allocation
+ * in the images heap instead of one per name.
+ *
+ * <p>
+ * The last atlas is kept to be reused when the menu is shown again with the same names, font and color.
+ */
+class TextAtlas {
+
+	private static final String BUDGET = "com.microej.exercise.ui.applicationlist.atlas.budget"; //$NON-NLS-1$
+
+	/** The minimum width of the atlas, the names are packed side by side in this width. */
+	private static final int MIN_WIDTH = 256;
+
+	private static final int BITS_PER_BYTE = 8;
+
+	@Nullable
+	private static TextAtlas lastAtlas;
+
+	private final String[] texts;
+
+	private final Font font;
+
+	private final int color;
+
+	private final int backgroundColor;
+
+	private final BufferedImage image;
+
+	private final short[] regionX;
+
+	private final short[] regionY;
+
+	private final short[] regionWidth;
+
+	private TextAtlas(String[] texts, Font font, int color, int backgroundColor, BufferedImage image, short[] regionX,
+			short[] regionY, short[] regionWidth) {
+		this.texts = texts;
+		this.font = font;
+		this.color = color;
+		this.backgroundColor = backgroundColor;
+		this.image = image;
+		this.regionX = regionX;
+		this.regionY = regionY;
+		this.regionWidth = regionWidth;
+	}
+
+	/**
+	 * Gets an atlas of the names of the items of a list.
+	 *
+	 * <p>
+	 * The last atlas is returned if it holds the same names, drawn with the same font and colors. Otherwise, it is
+	 * closed and a new atlas is created.
+	 *
+	 * @param adapter
+	 *            the adapter that provides the names.
+	 * @param font
+	 *            the font to draw the names with.
+	 * @param color
+	 *            the color of the names.
+	 * @param backgroundColor
+	 *            the color of the background to draw the names on.
+	 * @return the atlas, or <code>null</code> if the names do not fit in the budget of the atlas.
+	 */
+	@Nullable
+	static TextAtlas getAtlas(ApplicationListAdapter adapter, Font font, int color, int backgroundColor) {
+		TextAtlas atlas = lastAtlas;
+		if (atlas != null) {
+			if (atlas.matches(adapter, font, color, backgroundColor)) {
+				return atlas;
+			}
+			atlas.image.close();
+			lastAtlas = null;
+		}
+		atlas = createAtlas(adapter, font, color, backgroundColor);
+		lastAtlas = atlas;
+		return atlas;
+	}
+
+	@Nullable
+	private static TextAtlas createAtlas(ApplicationListAdapter adapter, Font font, int color, int backgroundColor) {
+		int count = adapter.getItemCount();
+		if (count == 0) {
+			return null;
+		}
+		String[] texts = new String[count];
+		short[] regionX = new short[count];
+		short[] regionY = new short[count];
+		short[] regionWidth = new short[count];
+
+		int atlasWidth = MIN_WIDTH;
+		for (int i = 0; i < count; i++) {
+			String text = adapter.getName(i);
+			texts[i] = text;
+			int width = font.stringWidth(text);
+			regionWidth[i] = (short) width;
+			atlasWidth = Math.max(atlasWidth, width);
+		}
+
+		// places the names on shelves, from left to right
+		int fontHeight = font.getHeight();
+		int x = 0;
+		int y = 0;
+		for (int i = 0; i < count; i++) {
+			int width = regionWidth[i];
+			if (x + width > atlasWidth) {
+				x = 0;
+				y += fontHeight;
+			}
+			regionX[i] = (short) x;
+			regionY[i] = (short) y;
+			x += width;
+		}
+		int atlasHeight = y + fontHeight;
+
+		int size = atlasWidth * atlasHeight * Display.getDisplay().getPixelDepth() / BITS_PER_BYTE;
+		if (size > Constants.getInt(BUDGET)) {
+			// the items render their names in their own images
+			return null;
+		}
+
+		BufferedImage image = new BufferedImage(atlasWidth, atlasHeight);
+		GraphicsContext g = image.getGraphicsContext();
+		g.setColor(backgroundColor);
+		Painter.fillRectangle(g, 0, 0, atlasWidth, atlasHeight);
+		g.setColor(color);
+		for (int i = 0; i < count; i++) {
+			Painter.drawString(g, texts[i], font, regionX[i], regionY[i]);
+		}
+		return new TextAtlas(texts, font, color, backgroundColor, image, regionX, regionY, regionWidth);
+	}
+
+	private boolean matches(ApplicationListAdapter adapter, Font font, int color, int backgroundColor) {
+		String[] texts = this.texts;
+		int count = texts.length;
+		if (this.font != font || this.color != color || this.backgroundColor != backgroundColor
+				|| adapter.getItemCount() != count) {
+			return false;
+		}
+		for (int i = 0; i < count; i++) {
+			if (!texts[i].equals(adapter.getName(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Draws a name.
+	 *
+	 * @param g
+	 *            the graphics context to draw with.
+	 * @param index
+	 *            the index of the item.
+	 * @param x
+	 *            the x coordinate of the name.
+	 * @param y
+	 *            the y coordinate of the name.
+	 */
+	void draw(GraphicsContext g, int index, int x, int y) {
+		Painter.drawRegion(g, this.image, this.regionX[index], this.regionY[index], this.regionWidth[index],
+				this.font.getHeight(), x, y);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.benchmark;
+
+import com.microej.exercise.ui.Main;
+import com.microej.exercise.ui.util.CoalescingPointerEventDispatcher;
+import com.microej.exercise.ui.util.Model;
+import ej.bon.Constants;
+import ej.microui.display.Display;
+import ej.microui.event.EventGenerator;
+import ej.microui.event.generator.Buttons;
+import ej.microui.event.generator.Command;
+import ej.microui.event.generator.Pointer;
+
+/**
+ * The entry point of the rendering benchmark.
+ *
+ * <p>
+ * It starts the application, then plays scripted gestures by sending pointer and command events as the touch screen and
+ * the physical button would:
+ * <ul>
+ * <li>horizontal swipes in a {@link SwipePage},</li>
+ * <li>vertical flings in the application menu, opened and closed with the physical button.</li>
+ * </ul>
+ * The frame statistics of each scenario are printed on the standard output, then the application exits. No user
+ * interaction is needed, so the benchmark can run unattended in the Simulator.
+ */
+public class BenchmarkMain {
+
+	private static final String ITERATIONS = "com.microej.exercise.ui.benchmark.iterations"; //$NON-NLS-1$
+	private static final String FRAME_PERIOD = "com.microej.exercise.ui.benchmark.frame.period"; //$NON-NLS-1$
+
+	private static final int FRAMES_CAPACITY = 2048;
+
+	private static final int NANOSECONDS_IN_MILLISECOND = 1000000;
+
+	/** The period of the pointer events sent during a gesture, in milliseconds. */
+	private static final int INPUT_PERIOD = 16;
+
+	/** The number of drag events of a gesture. */
+	private static final int GESTURE_STEPS = 12;
+
+	/** The delay given to the application to finish the animations after a gesture, in milliseconds. */
+	private static final int SETTLE_DELAY = 1000;
+
+	private static final int SWIPE_START = 5;
+	private static final int SWIPE_END = 1;
+	private static final int FLING_START = 3;
+	private static final int FLING_END = 1;
+	private static final int GESTURE_RATIO = 6;
+
+	private final Pointer pointer;
+
+	private final Command command;
+
+	private final FrameStatistics statistics;
+
+	private final int width;
+
+	private final int height;
+
+	private BenchmarkMain(Pointer pointer, Command command, FrameStatistics statistics) {
+		this.pointer = pointer;
+		this.command = command;
+		this.statistics = statistics;
+		Display display = Display.getDisplay();
+		this.width = display.getWidth();
+		this.height = display.getHeight();
+	}
+
+	/**
+	 * Entry point of the benchmark.
+	 *
+	 * @param args
+	 *            command line arguments.
+	 */
+	public static void main(String[] args) {
+		FrameStatistics statistics = new FrameStatistics(FRAMES_CAPACITY,
+				(long) Constants.getInt(FRAME_PERIOD) * NANOSECONDS_IN_MILLISECOND);
+		Main.setRenderMonitor(statistics);
+		Main.main(args);
+
+		Pointer pointer = EventGenerator.get(Pointer.class, 0);
+		Command command = EventGenerator.get(Command.class, 0);
+		if (pointer == null || command == null) {
+			// the VEE Port does not provide the input devices to emulate
+			throw new IllegalStateException();
+		}
+
+		BenchmarkMain benchmark = new BenchmarkMain(pointer, command, statistics);
+		benchmark.run(Constants.getInt(ITERATIONS));
+
+		Model.getInstance().stop();
+		System.exit(0);
+	}
+
+	private void run(int iterations) {
+		int width = this.width;
+		int height = this.height;
+		int centerX = width / 2;
+		int centerY = height / 2;
+
+		// swipes between the pages of a swipe container, alternately to the left and to the right
+		Main.showPage(new SwipePage());
+		pause(SETTLE_DELAY);
+		startMeasure();
+		int swipeStart = width * SWIPE_START / GESTURE_RATIO;
+		int swipeEnd = width * SWIPE_END / GESTURE_RATIO;
+		for (int i = 0; i < iterations; i++) {
+			playGesture(swipeStart, centerY, swipeEnd, centerY);
+			playGesture(swipeEnd, centerY, swipeStart, centerY);
+		}
+		endMeasure("swipe"); //$NON-NLS-1$
+
+		// opens the application menu with the physical button
+		startMeasure();
+		this.command.send(Command.ESC);
+		pause(SETTLE_DELAY);
+		endMeasure("menu.open"); //$NON-NLS-1$
+
+		// flings the application list, alternately upward and downward
+		startMeasure();
+		int flingStart = height * FLING_START / GESTURE_RATIO;
+		int flingEnd = height * FLING_END / GESTURE_RATIO;
+		for (int i = 0; i < iterations; i++) {
+			playGesture(centerX, flingStart, centerX, flingEnd);
+			playGesture(centerX, flingEnd, centerX, flingStart);
+		}
+		endMeasure("menu.scroll"); //$NON-NLS-1$
+
+		// goes back to the watchface with the physical button
+		startMeasure();
+		this.command.send(Command.ESC);
+		pause(SETTLE_DELAY);
+		endMeasure("menu.close"); //$NON-NLS-1$
+	}
+
+	private void startMeasure() {
+		this.statistics.reset();
+		Main.getEventDispatcher().resetCounters();
+	}
+
+	private void endMeasure(String scenario) {
+		this.statistics.print(scenario);
+		CoalescingPointerEventDispatcher dispatcher = Main.getEventDispatcher();
+		StringBuilder builder = new StringBuilder();
+		builder.append("[benchmark] ").append(scenario); //$NON-NLS-1$
+		builder.append(": drags=").append(dispatcher.getDragCount()); //$NON-NLS-1$
+		builder.append(" coalesced=").append(dispatcher.getCoalescedCount()); //$NON-NLS-1$
+		System.out.println(builder.toString());
+	}
+
+	private void playGesture(int startX, int startY, int endX, int endY) {
+		Pointer pointer = this.pointer;
+		pointer.reset(startX, startY);
+		pointer.send(Buttons.PRESSED, 0);
+		for (int step = 1; step <= GESTURE_STEPS; step++) {
+			pause(INPUT_PERIOD);
+			pointer.move(startX + (endX - startX) * step / GESTURE_STEPS,
+					startY + (endY - startY) * step / GESTURE_STEPS);
+		}
+		pointer.send(Buttons.RELEASED, 0);
+		pause(SETTLE_DELAY);
+	}
+
+	private static void pause(long delay) {
+		try {
+			Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
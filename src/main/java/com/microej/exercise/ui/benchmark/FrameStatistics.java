@@ -0,0 +1,138 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.benchmark;
+
+import com.microej.exercise.ui.util.RenderMonitor;
+import ej.microui.display.GraphicsContext;
+import ej.mwt.Widget;
+
+/**
+ * Collects the durations of the rendered frames and the heap usage, and prints their statistics.
+ *
+ * <p>
+ * The durations are stored in a preallocated array so that collecting them does not allocate memory. The frames
+ * rendered once the array is full are counted but not taken into account in the percentiles.
+ */
+public class FrameStatistics implements RenderMonitor {
+
+	private static final int NANOSECONDS_IN_MICROSECOND = 1000;
+
+	private static final int[] PERCENTILES = { 50, 95, 99 };
+
+	private static final int HUNDRED = 100;
+
+	private final long[] durations;
+
+	private final long framePeriod;
+
+	private int frameCount;
+
+	private int requestCount;
+
+	private long maxHeapUsage;
+
+	/**
+	 * Creates frame statistics.
+	 *
+	 * @param capacity
+	 *            the maximum number of frame durations to keep.
+	 * @param framePeriod
+	 *            the period of the display refresh, in nanoseconds. A frame longer than this period misses at least one
+	 *            refresh.
+	 */
+	public FrameStatistics(int capacity, long framePeriod) {
+		if (capacity <= 0 || framePeriod <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.durations = new long[capacity];
+		this.framePeriod = framePeriod;
+	}
+
+	@Override
+	public synchronized void onRenderRequested(Widget widget, int x, int y, int width, int height) {
+		this.requestCount++;
+	}
+
+	@Override
+	public synchronized void onFrameRendered(GraphicsContext g, Widget widget, int x, int y, int width, int height,
+			long duration) {
+		int frameCount = this.frameCount;
+		if (frameCount < this.durations.length) {
+			this.durations[frameCount] = duration;
+		}
+		this.frameCount = frameCount + 1;
+
+		Runtime runtime = Runtime.getRuntime();
+		this.maxHeapUsage = Math.max(this.maxHeapUsage, runtime.totalMemory() - runtime.freeMemory());
+	}
+
+	/**
+	 * Forgets the collected frames, to start a new measure.
+	 */
+	public synchronized void reset() {
+		this.frameCount = 0;
+		this.requestCount = 0;
+		this.maxHeapUsage = 0;
+	}
+
+	/**
+	 * Prints the statistics of the frames collected since the last reset on the standard output.
+	 *
+	 * <p>
+	 * The printed statistics are the frame and render request counts, the 50th, 95th and 99th percentiles of the frame
+	 * durations, the number of dropped frames (the display refreshes missed by the frames longer than the frame
+	 * period) and the maximum heap usage observed at the end of the frames.
+	 *
+	 * @param scenario
+	 *            the name of the measured scenario.
+	 */
+	public synchronized void print(String scenario) {
+		long[] durations = this.durations;
+		int count = Math.min(this.frameCount, durations.length);
+		sort(durations, count);
+
+		long framePeriod = this.framePeriod;
+		long droppedFrames = 0;
+		for (int i = 0; i < count; i++) {
+			droppedFrames += (durations[i] - 1) / framePeriod;
+		}
+
+		StringBuilder builder = new StringBuilder();
+		builder.append("[benchmark] ").append(scenario); //$NON-NLS-1$
+		builder.append(": frames=").append(this.frameCount); //$NON-NLS-1$
+		builder.append(" requests=").append(this.requestCount); //$NON-NLS-1$
+		for (int percentile : PERCENTILES) {
+			builder.append(" p").append(percentile).append('='); //$NON-NLS-1$
+			builder.append(getPercentile(durations, count, percentile) / NANOSECONDS_IN_MICROSECOND).append("us"); //$NON-NLS-1$
+		}
+		builder.append(" dropped=").append(droppedFrames); //$NON-NLS-1$
+		builder.append(" heap.max=").append(this.maxHeapUsage); //$NON-NLS-1$
+		System.out.println(builder.toString());
+	}
+
+	private static long getPercentile(long[] sortedValues, int count, int percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		// nearest-rank method
+		int rank = (percentile * count + HUNDRED - 1) / HUNDRED;
+		return sortedValues[Math.max(rank, 1) - 1];
+	}
+
+	private static void sort(long[] values, int count) {
+		// insertion sort: the arrays are small and mostly sorted
+		for (int i = 1; i < count; i++) {
+			long value = values[i];
+			int j = i - 1;
+			while (j >= 0 && values[j] > value) {
+				values[j + 1] = values[j];
+				j--;
+			}
+			values[j + 1] = value;
+		}
+	}
+}
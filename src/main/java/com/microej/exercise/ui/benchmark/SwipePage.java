@@ -0,0 +1,75 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.benchmark;
+
+import com.microej.exercise.ui.Main;
+import com.microej.exercise.ui.activity.ActivityPage;
+import com.microej.exercise.ui.util.Page;
+import com.microej.exercise.ui.watchface.WatchfacePage;
+import com.microej.exercise.ui.watchface.widget.SwipeContainer;
+import ej.mwt.Widget;
+import ej.mwt.stylesheet.cascading.CascadingStylesheet;
+
+/**
+ * A page that shows the watchface and the activity pages in a {@link SwipeContainer}, to measure the swipes between
+ * them.
+ */
+public class SwipePage extends Page {
+
+	private final Page[] pages;
+
+	/**
+	 * Creates a swipe page.
+	 */
+	public SwipePage() {
+		this.pages = new Page[] { new WatchfacePage(), new ActivityPage() };
+	}
+
+	@Override
+	public int getHeapSize() {
+		// the container keeps the widgets of all its pages
+		int heapSize = 0;
+		for (Page page : this.pages) {
+			heapSize += page.getHeapSize();
+		}
+		return heapSize;
+	}
+
+	@Override
+	public int getImagesHeapSize() {
+		// the container closes its snapshots when it is detached
+		int imagesHeapSize = 0;
+		for (Page page : this.pages) {
+			imagesHeapSize += page.getImagesHeapSize();
+		}
+		return imagesHeapSize;
+	}
+
+	@Override
+	protected Widget createWidget() {
+		SwipeContainer container = new SwipeContainer(Main.getRenderPolicy());
+		for (Page page : this.pages) {
+			container.addChild(page.getWidget());
+		}
+		return container;
+	}
+
+	@Override
+	public void populateStylesheet(CascadingStylesheet stylesheet) {
+		for (Page page : this.pages) {
+			page.populateStylesheet(stylesheet);
+		}
+	}
+
+	@Override
+	public void update(int changedFields) {
+		for (Page page : this.pages) {
+			// the container renders its neighbour page again when a drag starts if the page requested to be rendered
+			page.update(changedFields);
+		}
+	}
+}
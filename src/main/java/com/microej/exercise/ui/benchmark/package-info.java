@@ -0,0 +1,10 @@
+/*
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+
+/**
+ * Contains the classes of the rendering benchmark.
+ */
+@ej.annotation.NonNullByDefault
+package com.microej.exercise.ui.benchmark;
@@ -8,6 +8,7 @@ package com.microej.exercise.ui.stubapplication;
 
 import com.microej.exercise.ui.stubapplication.widget.ApplicationPreview;
 import com.microej.exercise.ui.style.Fonts;
+import com.microej.exercise.ui.util.HeapSizes;
 import com.microej.exercise.ui.util.Page;
 import ej.microui.display.Colors;
 import ej.mwt.Widget;
@@ -22,9 +23,18 @@ import ej.mwt.stylesheet.selector.TypeSelector;
  */
 public class StubApplicationPage extends Page {
 
+	// Fields of the preview widget: its name and icon.
+	private static final int PREVIEW_FIELDS = 2;
+
 	private final String name;
 	private final String iconPath;
 
+	@Override
+	public int getHeapSize() {
+		// a single preview widget with its icon, the name is shared with the application list
+		return HeapSizes.getWidgetSize(PREVIEW_FIELDS) + HeapSizes.getImageSize();
+	}
+
 	/**
 	 * Creates a page that represents the application with its icon and name.
 	 *
@@ -41,7 +51,7 @@ public class StubApplicationPage extends Page {
 	}
 
 	@Override
-	public Widget getWidget() {
+	protected Widget createWidget() {
 		return new ApplicationPreview(this.iconPath, this.name);
 	}
 
@@ -70,8 +70,8 @@ public class ApplicationPreview extends Widget {
 	@Override
 	public boolean handleEvent(int event) {
 		if (Event.getType(event) == Command.EVENT_TYPE) {
-			// the physical button has been pressed, show the application list
-			Main.showApplicationMenu();
+			// the physical button has been pressed, go back to the application list
+			Main.back();
 			return true;
 		}
 		return super.handleEvent(event);
@@ -44,4 +44,7 @@ public class ClassIdentifiers {
 	/** The class identifier for the activity application. */
 	public static final int ACTIVITY = 6;
 
+	/** The number of class identifiers, the identifiers are between <code>0</code> and this number (excluded). */
+	public static final int COUNT = 7;
+
 }
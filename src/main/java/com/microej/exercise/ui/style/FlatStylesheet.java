@@ -0,0 +1,152 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.style;
+
+import ej.basictool.ArrayTools;
+import ej.mwt.Widget;
+import ej.mwt.style.EditableStyle;
+import ej.mwt.style.Style;
+import ej.mwt.stylesheet.Stylesheet;
+import ej.mwt.stylesheet.cascading.CascadingStylesheet;
+
+import java.util.HashMap;
+
+/**
+ * A stylesheet that resolves the style of a widget from its class (see {@link ClassIdentifiers}) or from its type,
+ * without cascading.
+ *
+ * <p>
+ * Unlike a {@link CascadingStylesheet}, the styles are not merged: each style is a full copy of the default style,
+ * with its own attributes set on top of it. The style of a widget is the style of its first class that has one, or
+ * else the style of its type or of its nearest supertype that has one, or else the default style. Resolving a style
+ * checks only the classes that have a style, then looks the concrete type of the widget up in a table: the supertypes
+ * are walked once per concrete type, the first time a widget of this type is styled.
+ *
+ * <p>
+ * This stylesheet fits the pages whose widgets are selected by a class or by a type only. Since the styles are copied
+ * when they are created, the default style has to be set before the class and type styles are requested.
+ */
+public class FlatStylesheet implements Stylesheet {
+
+	private final EditableStyle defaultStyle;
+
+	private final EditableStyle[] classStyles;
+
+	// The class identifiers that have a style, in the order of their creation.
+	private int[] styledClasses;
+
+	private Class<?>[] types;
+
+	private EditableStyle[] typeStyles;
+
+	// The style resolved for each concrete type of the styled widgets, from its type or from its nearest supertype.
+	private final HashMap<Class<?>, Style> resolvedTypeStyles;
+
+	/**
+	 * Creates a flat stylesheet.
+	 *
+	 * @param classCount
+	 *            the number of class identifiers (see {@link ClassIdentifiers#COUNT}).
+	 */
+	public FlatStylesheet(int classCount) {
+		this.defaultStyle = new EditableStyle();
+		this.classStyles = new EditableStyle[classCount];
+		this.styledClasses = new int[0];
+		this.types = new Class<?>[0];
+		this.typeStyles = new EditableStyle[0];
+		this.resolvedTypeStyles = new HashMap<Class<?>, Style>();
+	}
+
+	/**
+	 * Gets the default style, applied to the widgets that have no class or type style.
+	 *
+	 * @return the editable default style.
+	 */
+	public EditableStyle getDefaultStyle() {
+		return this.defaultStyle;
+	}
+
+	/**
+	 * Gets the style of the widgets of a class, it is created from the default style the first time it is requested.
+	 *
+	 * @param classIdentifier
+	 *            the class identifier (see {@link ClassIdentifiers}).
+	 * @return the editable style of the class.
+	 */
+	public EditableStyle getClassStyle(int classIdentifier) {
+		EditableStyle style = this.classStyles[classIdentifier];
+		if (style == null) {
+			style = new EditableStyle(this.defaultStyle);
+			this.classStyles[classIdentifier] = style;
+			this.styledClasses = ArrayTools.add(this.styledClasses, classIdentifier);
+		}
+		return style;
+	}
+
+	/**
+	 * Gets the style of the widgets of a type, it is created from the default style the first time it is requested.
+	 *
+	 * <p>
+	 * The style applies to the widgets of this type and of its subtypes (e.g., anonymous subclasses), unless a subtype
+	 * has its own style.
+	 *
+	 * @param type
+	 *            the widget type.
+	 * @return the editable style of the type.
+	 */
+	public EditableStyle getTypeStyle(Class<? extends Widget> type) {
+		int index = indexOfType(type);
+		if (index != -1) {
+			return this.typeStyles[index];
+		}
+		EditableStyle style = new EditableStyle(this.defaultStyle);
+		this.types = ArrayTools.add(this.types, type);
+		this.typeStyles = ArrayTools.add(this.typeStyles, style);
+		// the new type may be nearer than the supertypes resolved so far
+		this.resolvedTypeStyles.clear();
+		return style;
+	}
+
+	@Override
+	public Style getStyle(Widget widget) {
+		int[] styledClasses = this.styledClasses;
+		for (int i = 0; i < styledClasses.length; i++) {
+			int classIdentifier = styledClasses[i];
+			if (widget.hasClassSelector(classIdentifier)) {
+				return this.classStyles[classIdentifier];
+			}
+		}
+		Class<?> widgetType = widget.getClass();
+		Style style = this.resolvedTypeStyles.get(widgetType);
+		if (style == null) {
+			style = resolveTypeStyle(widgetType);
+			this.resolvedTypeStyles.put(widgetType, style);
+		}
+		return style;
+	}
+
+	private Style resolveTypeStyle(Class<?> widgetType) {
+		// walks up the types of the widget, the nearest one that has a style wins
+		for (Class<?> type = widgetType; type != null; type = type.getSuperclass()) {
+			int index = indexOfType(type);
+			if (index != -1) {
+				return this.typeStyles[index];
+			}
+		}
+		return this.defaultStyle;
+	}
+
+	private int indexOfType(Class<?> type) {
+		Class<?>[] types = this.types;
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == type) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.bon.Util;
+import ej.microui.event.Event;
+import ej.microui.event.generator.Buttons;
+import ej.microui.event.generator.Pointer;
+import ej.mwt.Desktop;
+import ej.mwt.animation.Animation;
+import ej.mwt.event.PointerEventDispatcher;
+
+/**
+ * A pointer event dispatcher that delivers at most one drag event per rendered frame.
+ *
+ * <p>
+ * A drag event is not dispatched immediately: it is delivered by an animation of the animator of the desktop, which is
+ * ticked once per frame, after the previous frame has been flushed. The drag events received in the meantime replace
+ * it, so the widgets lay out and render once per frame whatever the rate of the touch screen. The position of the
+ * pointer is read from the generator when the event is handled, so the delivered event holds the latest position.
+ *
+ * <p>
+ * The positions of the replaced drag events are not lost: they are recorded with the time they are received, and can
+ * be read while the delivered drag event is handled (see {@link #getDragSampleCount()}), for example to estimate the
+ * velocity of the pointer.
+ *
+ * <p>
+ * A pending drag event is always delivered before the next event of another kind (e.g., a release), so the order of
+ * the gestures is kept.
+ */
+public class CoalescingPointerEventDispatcher extends PointerEventDispatcher {
+
+	/** The maximum number of drag samples recorded for a delivered drag event, the oldest ones are dropped. */
+	private static final int DRAG_SAMPLES = 8;
+
+	private final Desktop desktop;
+
+	private final Animation dragDispatcher;
+
+	private boolean dragScheduled;
+
+	private int pendingDrag;
+
+	private final int[] sampleXs;
+
+	private final int[] sampleYs;
+
+	private final long[] sampleTimes;
+
+	private int sampleCount;
+
+	private int dragCount;
+
+	private int coalescedCount;
+
+	/**
+	 * Creates a coalescing pointer event dispatcher.
+	 *
+	 * @param desktop
+	 *            the desktop to dispatch the events to.
+	 */
+	public CoalescingPointerEventDispatcher(Desktop desktop) {
+		super(desktop);
+		this.desktop = desktop;
+		this.sampleXs = new int[DRAG_SAMPLES];
+		this.sampleYs = new int[DRAG_SAMPLES];
+		this.sampleTimes = new long[DRAG_SAMPLES];
+		this.dragDispatcher = new Animation() {
+			@Override
+			public boolean tick(long platformTimeMillis) {
+				CoalescingPointerEventDispatcher.this.dragScheduled = false;
+				dispatchPendingDrag();
+				// the next drag event starts the animation again
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public boolean dispatchEvent(int event) {
+		if (Event.getType(event) == Pointer.EVENT_TYPE && Buttons.getAction(event) == Pointer.DRAGGED) {
+			this.dragCount++;
+			Pointer pointer = (Pointer) Event.getGenerator(event);
+			addSample(pointer.getX(), pointer.getY(), Util.platformTimeMillis());
+			if (this.pendingDrag != 0) {
+				// replaces the drag event that has not been delivered yet
+				this.coalescedCount++;
+			}
+			this.pendingDrag = event;
+			if (!this.dragScheduled) {
+				// delivers the drag event at the next frame
+				this.dragScheduled = true;
+				this.desktop.getAnimator().startAnimation(this.dragDispatcher);
+			}
+			return true;
+		}
+
+		// keeps the order of the events
+		dispatchPendingDrag();
+		return super.dispatchEvent(event);
+	}
+
+	/**
+	 * Gets the number of drag samples of the drag event being handled: the samples of the drag events it replaced, then
+	 * its own sample.
+	 *
+	 * <p>
+	 * The samples can be read only while a drag event is handled, in the MicroUI thread. The count is <code>0</code>
+	 * otherwise.
+	 *
+	 * @return the drag samples count.
+	 */
+	public int getDragSampleCount() {
+		return this.sampleCount;
+	}
+
+	/**
+	 * Gets the x coordinate of a drag sample of the drag event being handled.
+	 *
+	 * @param index
+	 *            the index of the sample, from the oldest one.
+	 * @return the x coordinate of the pointer.
+	 * @see #getDragSampleCount()
+	 */
+	public int getDragSampleX(int index) {
+		return this.sampleXs[index];
+	}
+
+	/**
+	 * Gets the y coordinate of a drag sample of the drag event being handled.
+	 *
+	 * @param index
+	 *            the index of the sample, from the oldest one.
+	 * @return the y coordinate of the pointer.
+	 * @see #getDragSampleCount()
+	 */
+	public int getDragSampleY(int index) {
+		return this.sampleYs[index];
+	}
+
+	/**
+	 * Gets the time a drag sample of the drag event being handled was received.
+	 *
+	 * <p>
+	 * The MicroUI events do not hold the time they were generated: a sample is timed when its event is received by the
+	 * dispatcher, before the event is delayed to the next frame.
+	 *
+	 * @param index
+	 *            the index of the sample, from the oldest one.
+	 * @return the reception time, in milliseconds (see {@link Util#platformTimeMillis()}).
+	 * @see #getDragSampleCount()
+	 */
+	public long getDragSampleTime(int index) {
+		return this.sampleTimes[index];
+	}
+
+	/**
+	 * Gets the number of drag events received since the last reset.
+	 *
+	 * @return the drag events count.
+	 */
+	public int getDragCount() {
+		return this.dragCount;
+	}
+
+	/**
+	 * Gets the number of drag events that have been replaced by a more recent one since the last reset.
+	 *
+	 * <p>
+	 * A high ratio of coalesced events means that the events are received faster than the frames are rendered.
+	 *
+	 * @return the coalesced events count.
+	 */
+	public int getCoalescedCount() {
+		return this.coalescedCount;
+	}
+
+	/**
+	 * Resets the event counters.
+	 */
+	public void resetCounters() {
+		this.dragCount = 0;
+		this.coalescedCount = 0;
+	}
+
+	/**
+	 * Dispatches the pending drag event, if any.
+	 *
+	 * <p>
+	 * Subclasses that dispatch some events without calling {@link #dispatchEvent(int)} must call this method first to
+	 * keep the order of the events.
+	 */
+	protected void dispatchPendingDrag() {
+		int event = this.pendingDrag;
+		if (event != 0) {
+			this.pendingDrag = 0;
+			try {
+				super.dispatchEvent(event);
+			} finally {
+				// the samples belong to the delivered event only
+				this.sampleCount = 0;
+			}
+		}
+	}
+
+	private void addSample(int x, int y, long time) {
+		int count = this.sampleCount;
+		if (count == DRAG_SAMPLES) {
+			// drops the oldest sample
+			count--;
+			System.arraycopy(this.sampleXs, 1, this.sampleXs, 0, count);
+			System.arraycopy(this.sampleYs, 1, this.sampleYs, 0, count);
+			System.arraycopy(this.sampleTimes, 1, this.sampleTimes, 0, count);
+		}
+		this.sampleXs[count] = x;
+		this.sampleYs[count] = y;
+		this.sampleTimes[count] = time;
+		this.sampleCount = count + 1;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+/**
+ * A utility class that estimates the size of the objects retained in the Java heap, to compute the heap size of the
+ * pages from what they build (see {@link Page#getHeapSize()}).
+ *
+ * <p>
+ * The sizes are the ones of a 32-bit core: an object has a header followed by its fields (4 bytes each, 8 for a
+ * <code>long</code>), an array has a header holding its length followed by its elements. The fields of the library
+ * widgets are counted from their state (bounds, parent, style, class selectors and flags), the estimation can be
+ * checked against the free memory reported by {@link Runtime#freeMemory()} before and after a page creates its widget.
+ */
+public class HeapSizes {
+
+	/** The size of the header of an object, in bytes. */
+	public static final int OBJECT_HEADER_SIZE = 4;
+
+	/** The size of the header of an array, with its length, in bytes. */
+	public static final int ARRAY_HEADER_SIZE = 8;
+
+	/** The size of a reference, <code>int</code> or <code>float</code> field, in bytes. */
+	public static final int FIELD_SIZE = 4;
+
+	/** The size of a <code>char</code> or <code>short</code> array element, in bytes. */
+	public static final int CHAR_SIZE = 2;
+
+	/** The number of fields of a widget: its bounds, parent, style, class selectors and state flags. */
+	public static final int WIDGET_FIELDS = 8;
+
+	/** The number of fields a container adds to the ones of a widget: its children array and count. */
+	public static final int CONTAINER_FIELDS = 2;
+
+	/** The number of fields of an image object: its size, format and native handle (the pixels are not counted). */
+	public static final int IMAGE_FIELDS = 4;
+
+	/** The number of fields of a string: its characters array, offset, length and hash. */
+	public static final int STRING_FIELDS = 4;
+
+	/**
+	 * Gets the size of an object.
+	 *
+	 * @param fields
+	 *            the number of 4-byte fields of the object.
+	 * @return the size of the object, in bytes.
+	 */
+	public static int getObjectSize(int fields) {
+		return OBJECT_HEADER_SIZE + fields * FIELD_SIZE;
+	}
+
+	/**
+	 * Gets the size of an array.
+	 *
+	 * @param length
+	 *            the length of the array.
+	 * @param elementSize
+	 *            the size of an element of the array, in bytes.
+	 * @return the size of the array, in bytes.
+	 */
+	public static int getArraySize(int length, int elementSize) {
+		return ARRAY_HEADER_SIZE + length * elementSize;
+	}
+
+	/**
+	 * Gets the size of a string allocated at runtime, with its characters.
+	 *
+	 * @param length
+	 *            the number of characters of the string.
+	 * @return the size of the string, in bytes.
+	 */
+	public static int getStringSize(int length) {
+		return getObjectSize(STRING_FIELDS) + getArraySize(length, CHAR_SIZE);
+	}
+
+	/**
+	 * Gets the size of an image object, without its pixels that are in the resources or in the images heap.
+	 *
+	 * @return the size of the image object, in bytes.
+	 */
+	public static int getImageSize() {
+		return getObjectSize(IMAGE_FIELDS);
+	}
+
+	/**
+	 * Gets the size of a widget with a class selector.
+	 *
+	 * @param fields
+	 *            the number of 4-byte fields the widget adds to the ones of a library widget.
+	 * @return the size of the widget, in bytes.
+	 */
+	public static int getWidgetSize(int fields) {
+		return getObjectSize(WIDGET_FIELDS + fields) + getArraySize(1, FIELD_SIZE);
+	}
+
+	/**
+	 * Gets the size of a container with a class selector, without the size of its children.
+	 *
+	 * @param fields
+	 *            the number of 4-byte fields the container adds to the ones of a library container.
+	 * @param children
+	 *            the number of children of the container.
+	 * @return the size of the container, in bytes.
+	 */
+	public static int getContainerSize(int fields, int children) {
+		return getWidgetSize(CONTAINER_FIELDS + fields) + getArraySize(children, FIELD_SIZE);
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.annotation.Nullable;
+import ej.microui.display.BufferedImage;
+
+/**
+ * A cache of {@link BufferedImage} identified by integer keys, bounded by a number of entries and by a memory budget
+ * in the images heap.
+ *
+ * <p>
+ * When there is not enough room for a new image, the least recently used images are closed and removed from the
+ * cache.
+ *
+ * <p>
+ * This class is not thread-safe: it is meant to be used in the MicroUI thread only (e.g., while rendering).
+ */
+public class ImageCache {
+
+	private final int budget;
+
+	private final int[] keys;
+
+	private final BufferedImage[] images;
+
+	private final int[] sizes;
+
+	private final int[] lastUses;
+
+	private int count;
+
+	private int usedSize;
+
+	private int useCounter;
+
+	/**
+	 * Creates an image cache.
+	 *
+	 * @param capacity
+	 *            the maximum number of images in the cache.
+	 * @param budget
+	 *            the maximum size of the images in the cache, in bytes.
+	 */
+	public ImageCache(int capacity, int budget) {
+		this.budget = budget;
+		this.keys = new int[capacity];
+		this.images = new BufferedImage[capacity];
+		this.sizes = new int[capacity];
+		this.lastUses = new int[capacity];
+	}
+
+	/**
+	 * Gets the image associated to the given key and marks it as the most recently used one.
+	 *
+	 * @param key
+	 *            the key of the image.
+	 * @return the image, or <code>null</code> if there is no image for this key in the cache.
+	 */
+	@Nullable
+	public BufferedImage get(int key) {
+		int index = indexOf(key);
+		if (index == -1) {
+			return null;
+		}
+		this.lastUses[index] = ++this.useCounter;
+		return this.images[index];
+	}
+
+	/**
+	 * Makes room for an image of the given size, closing the least recently used images if needed.
+	 *
+	 * @param size
+	 *            the size of the image to store, in bytes.
+	 * @return <code>true</code> if an image of the given size can be put in the cache, <code>false</code> if the image
+	 *         is larger than the budget of the cache.
+	 */
+	public boolean reserve(int size) {
+		if (size > this.budget) {
+			return false;
+		}
+		while (this.count > 0 && (this.count == this.keys.length || this.usedSize + size > this.budget)) {
+			removeAt(indexOfLeastRecentlyUsed());
+		}
+		return true;
+	}
+
+	/**
+	 * Puts an image in the cache.
+	 *
+	 * <p>
+	 * The caller is expected to have called {@link #reserve(int)} with the same size before creating the image. The
+	 * image is then owned by the cache and closed when it is evicted.
+	 *
+	 * @param key
+	 *            the key of the image.
+	 * @param image
+	 *            the image to store.
+	 * @param size
+	 *            the size of the image, in bytes.
+	 */
+	public void put(int key, BufferedImage image, int size) {
+		remove(key);
+		reserve(size);
+		int index = this.count++;
+		this.keys[index] = key;
+		this.images[index] = image;
+		this.sizes[index] = size;
+		this.lastUses[index] = ++this.useCounter;
+		this.usedSize += size;
+	}
+
+	/**
+	 * Closes and removes the image associated to the given key.
+	 *
+	 * <p>
+	 * Nothing is done if there is no image for this key in the cache.
+	 *
+	 * @param key
+	 *            the key of the image.
+	 */
+	public void remove(int key) {
+		int index = indexOf(key);
+		if (index != -1) {
+			removeAt(index);
+		}
+	}
+
+	/**
+	 * Closes all the images of the cache and empties it.
+	 */
+	public void clear() {
+		while (this.count > 0) {
+			removeAt(this.count - 1);
+		}
+	}
+
+	/**
+	 * Gets the size of the images in the cache.
+	 *
+	 * @return the size of the images, in bytes.
+	 */
+	public int getUsedSize() {
+		return this.usedSize;
+	}
+
+	private int indexOf(int key) {
+		int[] keys = this.keys;
+		for (int i = this.count - 1; i >= 0; i--) {
+			if (keys[i] == key) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int indexOfLeastRecentlyUsed() {
+		int[] lastUses = this.lastUses;
+		int leastIndex = 0;
+		for (int i = 1; i < this.count; i++) {
+			// compares the differences so that the wrap-around of the counter is supported
+			if (lastUses[i] - lastUses[leastIndex] < 0) {
+				leastIndex = i;
+			}
+		}
+		return leastIndex;
+	}
+
+	private void removeAt(int index) {
+		this.images[index].close();
+		this.usedSize -= this.sizes[index];
+
+		// moves the last entry to the freed slot
+		int last = --this.count;
+		this.keys[index] = this.keys[last];
+		this.images[index] = this.images[last];
+		this.sizes[index] = this.sizes[last];
+		this.lastUses[index] = this.lastUses[last];
+		this.images[last] = null;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.basictool.ArrayTools;
+import ej.mwt.Desktop;
+import ej.mwt.Widget;
+import ej.mwt.render.DefaultRenderPolicy;
+
+/**
+ * A render policy that notifies listeners of the render requests of the widgets.
+ *
+ * <p>
+ * It lets a widget know when one of its children requests to be rendered, for example to invalidate an image of the
+ * child drawn in advance.
+ */
+public class ListenableRenderPolicy extends DefaultRenderPolicy {
+
+	private RenderRequestListener[] listeners;
+
+	/**
+	 * Creates a listenable render policy.
+	 *
+	 * @param desktop
+	 *            the desktop to render.
+	 */
+	public ListenableRenderPolicy(Desktop desktop) {
+		super(desktop);
+		this.listeners = new RenderRequestListener[0];
+	}
+
+	/**
+	 * Adds a listener of the render requests.
+	 *
+	 * <p>
+	 * This method must be called in the MicroUI thread.
+	 *
+	 * @param listener
+	 *            the listener to add.
+	 */
+	public void addRenderRequestListener(RenderRequestListener listener) {
+		this.listeners = ArrayTools.add(this.listeners, listener);
+	}
+
+	/**
+	 * Removes a listener of the render requests.
+	 *
+	 * <p>
+	 * This method must be called in the MicroUI thread.
+	 *
+	 * @param listener
+	 *            the listener to remove.
+	 */
+	public void removeRenderRequestListener(RenderRequestListener listener) {
+		this.listeners = ArrayTools.remove(this.listeners, listener);
+	}
+
+	@Override
+	public void requestRender(Widget widget, int x, int y, int width, int height) {
+		// the array is replaced rather than modified, so it can be read from any thread
+		RenderRequestListener[] listeners = this.listeners;
+		for (RenderRequestListener listener : listeners) {
+			listener.onRenderRequested(widget);
+		}
+		super.requestRender(widget, x, y, width, height);
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+/**
+ * The history of the values of a metric (e.g., the heart rate).
+ *
+ * <p>
+ * The history keeps the last samples with their time, plus the average values per minute and per hour. Each view is a
+ * ring buffer of primitive arrays with a fixed capacity: adding a sample is done in constant time, overwrites the oldest
+ * values when a view is full and never allocates any object. The averages are accumulated as the samples are added, the
+ * average of a minute (or hour) is added to its view once the minute (or hour) is over.
+ *
+ * <p>
+ * The values of a view are indexed from the oldest (<code>0</code>) to the newest (<code>getSize(view) - 1</code>). To
+ * read several values consistently while samples are added by another thread, synchronize on the history instance.
+ */
+public class MetricHistory {
+
+	/** The view of the samples. */
+	public static final int SAMPLES = 0;
+
+	/** The view of the average values per minute. */
+	public static final int MINUTES = 1;
+
+	/** The view of the average values per hour. */
+	public static final int HOURS = 2;
+
+	private static final int VIEWS_COUNT = 3;
+
+	private static final int SECONDS_IN_MINUTE = 60;
+
+	private static final int SECONDS_IN_HOUR = 60 * SECONDS_IN_MINUTE;
+
+	/** The values of each view, as ring buffers. */
+	private final int[][] values;
+
+	/** The times of each view (in seconds since Epoch), as ring buffers. */
+	private final int[][] times;
+
+	/** The index of the oldest value of each view. */
+	private final int[] heads;
+
+	/** The number of values of each view. */
+	private final int[] sizes;
+
+	/** The duration of a value of each view, in seconds (0 for the samples). */
+	private final int[] periods;
+
+	/** The start time of the period being accumulated for each view (in seconds since Epoch). */
+	private final int[] periodStarts;
+
+	/** The sum of the samples of the period being accumulated for each view. */
+	private final long[] periodSums;
+
+	/** The number of samples of the period being accumulated for each view. */
+	private final int[] periodCounts;
+
+	/**
+	 * Creates a history.
+	 *
+	 * @param samplesCapacity
+	 *            the maximum number of samples.
+	 * @param minutesCapacity
+	 *            the maximum number of average values per minute.
+	 * @param hoursCapacity
+	 *            the maximum number of average values per hour.
+	 */
+	public MetricHistory(int samplesCapacity, int minutesCapacity, int hoursCapacity) {
+		this.values = new int[][] { new int[samplesCapacity], new int[minutesCapacity], new int[hoursCapacity] };
+		this.times = new int[][] { new int[samplesCapacity], new int[minutesCapacity], new int[hoursCapacity] };
+		this.heads = new int[VIEWS_COUNT];
+		this.sizes = new int[VIEWS_COUNT];
+		this.periods = new int[] { 0, SECONDS_IN_MINUTE, SECONDS_IN_HOUR };
+		this.periodStarts = new int[VIEWS_COUNT];
+		this.periodSums = new long[VIEWS_COUNT];
+		this.periodCounts = new int[VIEWS_COUNT];
+	}
+
+	/**
+	 * Adds a sample.
+	 *
+	 * @param value
+	 *            the value of the sample.
+	 * @param time
+	 *            the time of the sample, in seconds since Epoch. The samples must be added in chronological order.
+	 */
+	public synchronized void add(int value, int time) {
+		append(SAMPLES, value, time);
+
+		for (int view = MINUTES; view < VIEWS_COUNT; view++) {
+			int period = this.periods[view];
+			int periodStart = time - time % period;
+			int count = this.periodCounts[view];
+			if (count > 0 && periodStart != this.periodStarts[view]) {
+				// the previous period is over, adds its average value
+				append(view, (int) (this.periodSums[view] / count), this.periodStarts[view]);
+				count = 0;
+				this.periodSums[view] = 0;
+			}
+			this.periodStarts[view] = periodStart;
+			this.periodSums[view] += value;
+			this.periodCounts[view] = count + 1;
+		}
+	}
+
+	/**
+	 * Gets the number of values of a view.
+	 *
+	 * @param view
+	 *            the view ({@link #SAMPLES}, {@link #MINUTES} or {@link #HOURS}).
+	 * @return the number of values.
+	 */
+	public synchronized int getSize(int view) {
+		return this.sizes[view];
+	}
+
+	/**
+	 * Gets the maximum number of values of a view.
+	 *
+	 * @param view
+	 *            the view ({@link #SAMPLES}, {@link #MINUTES} or {@link #HOURS}).
+	 * @return the capacity of the view.
+	 */
+	public int getCapacity(int view) {
+		return this.values[view].length;
+	}
+
+	/**
+	 * Gets a value of a view.
+	 *
+	 * @param view
+	 *            the view ({@link #SAMPLES}, {@link #MINUTES} or {@link #HOURS}).
+	 * @param index
+	 *            the index of the value, from <code>0</code> (the oldest) to <code>getSize(view) - 1</code> (the
+	 *            newest).
+	 * @return the value.
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is not valid.
+	 */
+	public synchronized int getValue(int view, int index) {
+		return this.values[view][toArrayIndex(view, index)];
+	}
+
+	/**
+	 * Gets the time of a value of a view.
+	 *
+	 * <p>
+	 * For the average values, it is the start time of the minute (or hour).
+	 *
+	 * @param view
+	 *            the view ({@link #SAMPLES}, {@link #MINUTES} or {@link #HOURS}).
+	 * @param index
+	 *            the index of the value, from <code>0</code> (the oldest) to <code>getSize(view) - 1</code> (the
+	 *            newest).
+	 * @return the time, in seconds since Epoch.
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is not valid.
+	 */
+	public synchronized int getTime(int view, int index) {
+		return this.times[view][toArrayIndex(view, index)];
+	}
+
+	private void append(int view, int value, int time) {
+		int[] values = this.values[view];
+		int capacity = values.length;
+		if (capacity == 0) {
+			return;
+		}
+
+		int size = this.sizes[view];
+		int index = this.heads[view] + size;
+		if (index >= capacity) {
+			index -= capacity;
+		}
+		values[index] = value;
+		this.times[view][index] = time;
+
+		if (size == capacity) {
+			// the view is full, the oldest value has been overwritten
+			int head = this.heads[view] + 1;
+			this.heads[view] = head == capacity ? 0 : head;
+		} else {
+			this.sizes[view] = size + 1;
+		}
+	}
+
+	private int toArrayIndex(int view, int index) {
+		if (index < 0 || index >= this.sizes[view]) {
+			throw new IndexOutOfBoundsException();
+		}
+		int arrayIndex = this.heads[view] + index;
+		int capacity = this.values[view].length;
+		return arrayIndex >= capacity ? arrayIndex - capacity : arrayIndex;
+	}
+}
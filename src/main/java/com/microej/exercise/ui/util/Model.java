@@ -7,11 +7,18 @@
 package com.microej.exercise.ui.util;
 
 import ej.annotation.Nullable;
+import ej.bon.Constants;
 import ej.bon.TimerTask;
+import ej.bon.Util;
 import ej.bon.XMath;
+import ej.microui.MicroUI;
 import ej.observable.Observer;
 import ej.observable.SimpleObservable;
 
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Random;
 
 /**
@@ -24,11 +31,49 @@ import java.util.Random;
  *
  * <p>
  * This class is a {@link SimpleObservable}, so classes can register as {@link Observer} of this class to be notified
- * when the data changes (see {@link #setObserver(Observer)}.
+ * when the data changes (see {@link #setObserver(Observer)}. The fields that changed at the last update can be retrieved
+ * with {@link #getChangedFields()}. No notification is sent when no field changed.
+ *
+ * <p>
+ * The data is generated in the timer thread and published atomically as an immutable {@link ModelSnapshot}. The
+ * observer is always notified in the MicroUI thread, and the updates that happen while a notification is pending are
+ * merged into this notification.
+ *
+ * <p>
+ * The history of each metric is kept in a {@link MetricHistory}, whose capacities are defined by the
+ * <code>com.microej.exercise.ui.model.history.*</code> constants. The statistics of the heart rate over the last
+ * minute, 10 minutes and hour, and the step rate over the last hour are maintained in {@link RollingStatistics}.
+ *
+ * <p>
+ * When the <code>com.microej.exercise.ui.model.replay.enabled</code> constant is set, the data is read from a recorded
+ * trace resource instead of being generated randomly, and the time of the samples is the time of the trace (starting
+ * at Epoch). Combined with a shorter update period (<code>com.microej.exercise.ui.model.update.period</code>), this
+ * gives a reproducible input stream for benchmarks.
  *
  */
 public class Model extends SimpleObservable {
 
+	/** The bit of the changed fields mask set when the heart rate changed. */
+	public static final int HEART_RATE = 0x1;
+
+	/** The bit of the changed fields mask set when the step count (and the distance) changed. */
+	public static final int STEP_COUNT = 0x2;
+
+	/** The bit of the changed fields mask set when the battery level changed. */
+	public static final int BATTERY_LEVEL = 0x4;
+
+	/** The changed fields mask with all the fields. */
+	public static final int ALL_FIELDS = HEART_RATE | STEP_COUNT | BATTERY_LEVEL;
+
+	/** The statistics window of the last minute. */
+	public static final int MINUTE_WINDOW = 0;
+
+	/** The statistics window of the last 10 minutes. */
+	public static final int TEN_MINUTES_WINDOW = 1;
+
+	/** The statistics window of the last hour. */
+	public static final int HOUR_WINDOW = 2;
+
 	/* Step activity constants */
 
 	private static final int INITIAL_STEP_COUNT = 1473;
@@ -50,12 +95,32 @@ public class Model extends SimpleObservable {
 	private static final int BATTERY_LEVEL_INCREMENT = 5;
 
 	/* Data update rate */
-	private static final int UPDATE_PERIOD = 5000;
+	private static final String UPDATE_PERIOD_CONSTANT = "com.microej.exercise.ui.model.update.period"; //$NON-NLS-1$
+
+	/* Trace replay */
+	private static final String REPLAY_ENABLED = "com.microej.exercise.ui.model.replay.enabled"; //$NON-NLS-1$
+	private static final String REPLAY_TRACE = "com.microej.exercise.ui.model.replay.trace"; //$NON-NLS-1$
 
 	private static final int INITIAL_SELECTED_APPLICATION = 0;
 
+	/* History capacities */
+	private static final String HISTORY_SAMPLES = "com.microej.exercise.ui.model.history.samples"; //$NON-NLS-1$
+	private static final String HISTORY_MINUTES = "com.microej.exercise.ui.model.history.minutes"; //$NON-NLS-1$
+	private static final String HISTORY_HOURS = "com.microej.exercise.ui.model.history.hours"; //$NON-NLS-1$
+
+	private static final int MILLISECONDS_IN_SECOND = 1000;
+
+	/* Statistics windows and buckets durations (in seconds) */
+	private static final int SECONDS_IN_MINUTE = 60;
+	private static final int SECONDS_IN_HOUR = 60 * SECONDS_IN_MINUTE;
+	private static final int TEN_MINUTES = 10 * SECONDS_IN_MINUTE;
+	private static final int TEN_MINUTES_WINDOW_BUCKET = SECONDS_IN_MINUTE;
+	private static final int HOUR_WINDOW_BUCKET = 5 * SECONDS_IN_MINUTE;
+
 	private static final Model INSTANCE = new Model();
 
+	/* Generated data, only accessed by the update task */
+
 	private int stepCount;
 
 	private int heartRate;
@@ -64,10 +129,41 @@ public class Model extends SimpleObservable {
 
 	private int batteryLevel;
 
-	private int selectedApplicationIndex;
-
 	private final Random random;
 
+	@Nullable
+	private DataInputStream trace;
+
+	private int tracePeriod;
+
+	private int traceTime;
+
+	/* Published data */
+
+	private volatile ModelSnapshot snapshot;
+
+	private int pendingChangedFields;
+
+	private boolean notificationPending;
+
+	private final Runnable notifier;
+
+	private final MetricHistory heartRateHistory;
+
+	private final MetricHistory stepCountHistory;
+
+	private final MetricHistory batteryLevelHistory;
+
+	private final RollingStatistics[] heartRateStatistics;
+
+	private final RollingStatistics hourlySteps;
+
+	/* Data of the MicroUI thread */
+
+	private int changedFields;
+
+	private int selectedApplicationIndex;
+
 	@Nullable
 	private TimerTask updateTask;
 
@@ -78,6 +174,44 @@ public class Model extends SimpleObservable {
 		updateHeartRate();
 		this.selectedApplicationIndex = INITIAL_SELECTED_APPLICATION;
 		this.batteryLevel = INITIAL_BATTERY_LEVEL;
+		this.snapshot = new ModelSnapshot(this.heartRate, this.stepCount, this.batteryLevel);
+		this.heartRateHistory = createHistory();
+		this.stepCountHistory = createHistory();
+		this.batteryLevelHistory = createHistory();
+		this.heartRateStatistics = new RollingStatistics[] {
+				new RollingStatistics(SECONDS_IN_MINUTE,
+						computeMinuteWindowBucket(Constants.getInt(UPDATE_PERIOD_CONSTANT))),
+				new RollingStatistics(TEN_MINUTES, TEN_MINUTES_WINDOW_BUCKET),
+				new RollingStatistics(SECONDS_IN_HOUR, HOUR_WINDOW_BUCKET) };
+		this.hourlySteps = new RollingStatistics(SECONDS_IN_HOUR, HOUR_WINDOW_BUCKET);
+		this.notifier = new Runnable() {
+
+			@Override
+			public void run() {
+				notifyChanges();
+			}
+		};
+	}
+
+	/**
+	 * Computes the bucket duration of the minute window: the update period, so that each bucket holds one sample,
+	 * shortened to divide the minute.
+	 *
+	 * @param updatePeriod
+	 *            the update period, in milliseconds.
+	 * @return the bucket duration, in seconds.
+	 */
+	private static int computeMinuteWindowBucket(int updatePeriod) {
+		int bucket = Math.max(1, Math.min(SECONDS_IN_MINUTE, updatePeriod / MILLISECONDS_IN_SECOND));
+		while (SECONDS_IN_MINUTE % bucket != 0) {
+			bucket--;
+		}
+		return bucket;
+	}
+
+	private static MetricHistory createHistory() {
+		return new MetricHistory(Constants.getInt(HISTORY_SAMPLES), Constants.getInt(HISTORY_MINUTES),
+				Constants.getInt(HISTORY_HOURS));
 	}
 
 	/**
@@ -104,7 +238,7 @@ public class Model extends SimpleObservable {
 	 * @return the current step count.
 	 */
 	public int getStepCount() {
-		return this.stepCount;
+		return this.snapshot.getStepCount();
 	}
 
 	/**
@@ -113,7 +247,7 @@ public class Model extends SimpleObservable {
 	 * @return the current battery level.
 	 */
 	public int getBatteryLevel() {
-		return this.batteryLevel;
+		return this.snapshot.getBatteryLevel();
 	}
 
 	/**
@@ -135,13 +269,36 @@ public class Model extends SimpleObservable {
 		this.selectedApplicationIndex = index;
 	}
 
+	/**
+	 * Gets the fields that changed since the previous notification of the observer.
+	 *
+	 * <p>
+	 * This method is meant to be called in the MicroUI thread, while the observer is notified.
+	 *
+	 * @return a mask of the changed fields ({@link #HEART_RATE}, {@link #STEP_COUNT}, {@link #BATTERY_LEVEL}).
+	 */
+	public int getChangedFields() {
+		return this.changedFields;
+	}
+
 	/**
 	 * Gets the daily distance walked.
 	 *
 	 * @return the distance walked this day.
 	 */
 	public float getDistance() {
-		return this.stepCount * AVERAGE_METERS_BY_STEP / METERS_IN_KM;
+		return getDistance(this.snapshot.getStepCount());
+	}
+
+	/**
+	 * Gets the distance walked for the given step count.
+	 *
+	 * @param stepCount
+	 *            the step count.
+	 * @return the distance walked.
+	 */
+	public float getDistance(int stepCount) {
+		return stepCount * AVERAGE_METERS_BY_STEP / METERS_IN_KM;
 	}
 
 	/**
@@ -150,7 +307,66 @@ public class Model extends SimpleObservable {
 	 * @return the current heart rate.
 	 */
 	public int getHeartRate() {
-		return this.heartRate;
+		return this.snapshot.getHeartRate();
+	}
+
+	/**
+	 * Gets the history of the heart rate.
+	 *
+	 * @return the heart rate history.
+	 */
+	public MetricHistory getHeartRateHistory() {
+		return this.heartRateHistory;
+	}
+
+	/**
+	 * Gets the history of the step count.
+	 *
+	 * @return the step count history.
+	 */
+	public MetricHistory getStepCountHistory() {
+		return this.stepCountHistory;
+	}
+
+	/**
+	 * Gets the history of the battery level.
+	 *
+	 * @return the battery level history.
+	 */
+	public MetricHistory getBatteryLevelHistory() {
+		return this.batteryLevelHistory;
+	}
+
+	/**
+	 * Gets the statistics of the heart rate over a sliding window.
+	 *
+	 * @param window
+	 *            the window ({@link #MINUTE_WINDOW}, {@link #TEN_MINUTES_WINDOW} or {@link #HOUR_WINDOW}).
+	 * @return the heart rate statistics.
+	 */
+	public RollingStatistics getHeartRateStatistics(int window) {
+		return this.heartRateStatistics[window];
+	}
+
+	/**
+	 * Gets the number of steps walked during the last hour.
+	 *
+	 * @return the step rate, in steps per hour.
+	 */
+	public int getStepRate() {
+		return (int) this.hourlySteps.getSum();
+	}
+
+	/**
+	 * Gets the last published data.
+	 *
+	 * <p>
+	 * Reading the data from the same snapshot guarantees that all the values come from the same update.
+	 *
+	 * @return the last snapshot of the data.
+	 */
+	public ModelSnapshot getSnapshot() {
+		return this.snapshot;
 	}
 
 	/**
@@ -158,25 +374,42 @@ public class Model extends SimpleObservable {
 	 *
 	 * <p>
 	 * It starts a new {@link TimerTask} that generates periodically new stub user and device data (heart rate, step
-	 * count, battery level).
+	 * count, battery level), or that reads it from the trace in replay mode.
 	 *
 	 */
-	public void start() {
+	public synchronized void start() {
 		stop();
+		if (Constants.getBoolean(REPLAY_ENABLED)) {
+			// starts the replay from the first sample of the trace
+			openTrace();
+			this.traceTime = 0;
+			replaySample();
+			this.snapshot = new ModelSnapshot(this.heartRate, this.stepCount, this.batteryLevel);
+		}
+
 		TimerTask task = new TimerTask() {
 
 			@Override
 			public void run() {
-				updateData();
-
-				// the model data changed, notify the observer
-				setChanged();
-				notifyObserver();
+				int changedFields;
+				synchronized (Model.this) {
+					if (Model.this.updateTask != this) {
+						// the model has been stopped (and its trace closed) while this update was waiting
+						return;
+					}
+					changedFields = updateData(getSampleTime());
+				}
+
+				if (changedFields != 0) {
+					// the model data changed, publish it and notify the observer
+					publish(changedFields);
+				}
 			}
 		};
 
 		// starts the periodic task that updates the model data
-		TimeHelper.getTimer().schedule(task, UPDATE_PERIOD, UPDATE_PERIOD);
+		int updatePeriod = Constants.getInt(UPDATE_PERIOD_CONSTANT);
+		TimeHelper.getTimer().schedule(task, updatePeriod, updatePeriod);
 		this.updateTask = task;
 	}
 
@@ -184,19 +417,159 @@ public class Model extends SimpleObservable {
 	 * Stops tracking the user and device data.
 	 *
 	 * <p>
-	 * This stops the backing {@link TimerTask}.
+	 * This stops the backing {@link TimerTask}. An update in progress completes before the trace is closed.
 	 */
-	public void stop() {
+	public synchronized void stop() {
 		TimerTask task = this.updateTask;
 		if (task != null) {
 			task.cancel();
+			this.updateTask = null;
 		}
+		closeTrace();
 	}
 
-	private void updateData() {
-		updateHeartRate();
-		updateSteps();
-		updateBatteryLevel();
+	/**
+	 * Gets the time of the next sample.
+	 *
+	 * @return the time, in seconds since Epoch.
+	 */
+	private int getSampleTime() {
+		if (this.trace != null) {
+			// in replay mode, the samples are timed by the trace, whatever the update period
+			this.traceTime += this.tracePeriod;
+			return this.traceTime;
+		}
+		return (int) (Util.currentTimeMillis() / MILLISECONDS_IN_SECOND);
+	}
+
+	private DataInputStream openTrace() {
+		closeTrace();
+		String tracePath = Constants.getString(REPLAY_TRACE);
+		InputStream stream = Model.class.getResourceAsStream(tracePath);
+		if (stream == null) {
+			throw new IllegalStateException("Sensor trace not found: " + tracePath); //$NON-NLS-1$
+		}
+		DataInputStream trace = new DataInputStream(stream);
+		try {
+			this.tracePeriod = trace.readUnsignedShort();
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read the period of the sensor trace: " + e); //$NON-NLS-1$
+		}
+		this.trace = trace;
+		return trace;
+	}
+
+	private void closeTrace() {
+		DataInputStream trace = this.trace;
+		if (trace != null) {
+			try {
+				trace.close();
+			} catch (IOException e) {
+				// nothing to do, the trace is not used anymore
+			}
+			this.trace = null;
+		}
+	}
+
+	/**
+	 * Reads the next sample of the trace. The trace is replayed from its beginning once its end is reached.
+	 */
+	private void replaySample() {
+		DataInputStream trace = this.trace;
+		if (trace == null) {
+			return;
+		}
+		try {
+			try {
+				readSample(trace);
+			} catch (EOFException e) {
+				readSample(openTrace());
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read a sample of the sensor trace: " + e); //$NON-NLS-1$
+		}
+	}
+
+	private void readSample(DataInputStream trace) throws IOException {
+		this.heartRate = trace.readUnsignedByte();
+		this.stepCount = trace.readUnsignedShort();
+		this.batteryLevel = trace.readUnsignedByte();
+	}
+
+	private void recordHistory(int time) {
+		this.heartRateHistory.add(this.heartRate, time);
+		this.stepCountHistory.add(this.stepCount, time);
+		this.batteryLevelHistory.add(this.batteryLevel, time);
+	}
+
+	private void recordStatistics(int time, int previousStepCount) {
+		int heartRate = this.heartRate;
+		for (RollingStatistics statistics : this.heartRateStatistics) {
+			statistics.add(heartRate, time);
+		}
+
+		// the step count is reset when the goal is reached, the steps walked are then unknown
+		this.hourlySteps.add(Math.max(0, this.stepCount - previousStepCount), time);
+	}
+
+	private void publish(int changedFields) {
+		ModelSnapshot snapshot = new ModelSnapshot(this.heartRate, this.stepCount, this.batteryLevel);
+		synchronized (this) {
+			this.snapshot = snapshot;
+			this.pendingChangedFields |= changedFields;
+			if (this.notificationPending) {
+				// the pending notification will deliver this update too
+				return;
+			}
+			this.notificationPending = true;
+		}
+		MicroUI.callSerially(this.notifier);
+	}
+
+	private void notifyChanges() {
+		synchronized (this) {
+			this.changedFields = this.pendingChangedFields;
+			this.pendingChangedFields = 0;
+			this.notificationPending = false;
+		}
+		setChanged();
+		notifyObserver();
+	}
+
+	/**
+	 * Updates the data, its history and its statistics.
+	 *
+	 * @param time
+	 *            the time of the update, in seconds since Epoch.
+	 * @return the mask of the fields that changed.
+	 */
+	private int updateData(int time) {
+		int heartRate = this.heartRate;
+		int stepCount = this.stepCount;
+		int batteryLevel = this.batteryLevel;
+
+		if (this.trace != null) {
+			replaySample();
+		} else {
+			updateHeartRate();
+			updateSteps();
+			updateBatteryLevel();
+		}
+
+		recordHistory(time);
+		recordStatistics(time, stepCount);
+
+		int changedFields = 0;
+		if (heartRate != this.heartRate) {
+			changedFields |= HEART_RATE;
+		}
+		if (stepCount != this.stepCount) {
+			changedFields |= STEP_COUNT;
+		}
+		if (batteryLevel != this.batteryLevel) {
+			changedFields |= BATTERY_LEVEL;
+		}
+		return changedFields;
 	}
 
 	private void updateSteps() {
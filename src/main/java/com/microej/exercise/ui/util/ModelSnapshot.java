@@ -0,0 +1,66 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+/**
+ * An immutable set of the user and device data published by the {@link Model}.
+ *
+ * <p>
+ * All the values of a snapshot come from the same update of the model, so they are consistent with each other
+ * whatever the thread that reads them.
+ */
+public class ModelSnapshot {
+
+	private final int heartRate;
+
+	private final int stepCount;
+
+	private final int batteryLevel;
+
+	/**
+	 * Creates a snapshot.
+	 *
+	 * @param heartRate
+	 *            the heart rate.
+	 * @param stepCount
+	 *            the step count.
+	 * @param batteryLevel
+	 *            the battery level.
+	 */
+	public ModelSnapshot(int heartRate, int stepCount, int batteryLevel) {
+		this.heartRate = heartRate;
+		this.stepCount = stepCount;
+		this.batteryLevel = batteryLevel;
+	}
+
+	/**
+	 * Gets the heart rate.
+	 *
+	 * @return the heart rate.
+	 */
+	public int getHeartRate() {
+		return this.heartRate;
+	}
+
+	/**
+	 * Gets the step count.
+	 *
+	 * @return the step count.
+	 */
+	public int getStepCount() {
+		return this.stepCount;
+	}
+
+	/**
+	 * Gets the battery level.
+	 *
+	 * @return the battery level.
+	 */
+	public int getBatteryLevel() {
+		return this.batteryLevel;
+	}
+}
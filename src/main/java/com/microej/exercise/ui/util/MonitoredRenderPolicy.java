@@ -0,0 +1,81 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.bon.Util;
+import ej.microui.display.Display;
+import ej.mwt.Desktop;
+import ej.mwt.Widget;
+
+/**
+ * A render policy that measures the frames it renders and reports them to a {@link RenderMonitor}.
+ *
+ * <p>
+ * A frame is a render pass of the policy: the render of the whole desktop, or the render of the area of a widget that
+ * requested it. Its duration is the time spent drawing the widgets in the MicroUI thread. The flush of the display
+ * that follows is requested by the pass and performed after it, so it is not part of the duration, and the
+ * measurement does not wait for it.
+ */
+public class MonitoredRenderPolicy extends ListenableRenderPolicy {
+
+	private final RenderMonitor monitor;
+
+	private boolean renderingDesktop;
+
+	/**
+	 * Creates a monitored render policy.
+	 *
+	 * @param desktop
+	 *            the desktop to render.
+	 * @param monitor
+	 *            the monitor to notify.
+	 */
+	public MonitoredRenderPolicy(Desktop desktop, RenderMonitor monitor) {
+		super(desktop);
+		this.monitor = monitor;
+	}
+
+	@Override
+	public void renderDesktop() {
+		long start = Util.platformTimeNanos();
+		// the widgets rendered by the desktop render belong to this frame
+		this.renderingDesktop = true;
+		try {
+			super.renderDesktop();
+		} finally {
+			this.renderingDesktop = false;
+		}
+		Widget widget = getDesktop().getWidget();
+		if (widget != null) {
+			endFrame(widget, 0, 0, widget.getWidth(), widget.getHeight(), start);
+		}
+	}
+
+	@Override
+	protected void renderWidget(Widget widget, int x, int y, int width, int height) {
+		if (this.renderingDesktop) {
+			super.renderWidget(widget, x, y, width, height);
+			return;
+		}
+		long start = Util.platformTimeNanos();
+		super.renderWidget(widget, x, y, width, height);
+		endFrame(widget, x, y, width, height, start);
+	}
+
+	@Override
+	public void requestRender(Widget widget, int x, int y, int width, int height) {
+		this.monitor.onRenderRequested(widget, x, y, width, height);
+		super.requestRender(widget, x, y, width, height);
+	}
+
+	private void endFrame(Widget widget, int x, int y, int width, int height, long start) {
+		long duration = Util.platformTimeNanos() - start;
+		// the flush requested by the render pass has not been performed yet: the monitor may draw in this frame
+		this.monitor.onFrameRendered(Display.getDisplay().getGraphicsContext(), widget, x, y, width, height,
+				duration);
+	}
+}
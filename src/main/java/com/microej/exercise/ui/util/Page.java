@@ -7,7 +7,9 @@
 package com.microej.exercise.ui.util;
 
 import com.microej.exercise.ui.Main;
+import ej.annotation.Nullable;
 import ej.mwt.Widget;
+import ej.mwt.stylesheet.Stylesheet;
 import ej.mwt.stylesheet.cascading.CascadingStylesheet;
 import ej.observable.Observer;
 
@@ -18,16 +20,90 @@ import ej.observable.Observer;
  * Pages are at the core of the navigation framework of this application, see {@link Main#showPage(Page)}.
  *
  * <p>
- * To get the widget representation of a page, users should call {@link #getWidget()}.
+ * To get the widget representation of a page, users should call {@link #getWidget()}. The widget is created the first
+ * time it is requested and kept until {@link #releaseWidget()} is called, so that a page shown again is only attached
+ * again to the desktop.
  */
 public abstract class Page implements Observer {
 
+	@Nullable
+	private Widget widget;
+
 	/**
 	 * Gets the widget that represents the content of the page.
 	 *
+	 * <p>
+	 * The widget is created by {@link #createWidget()} when this method is called for the first time, or for the first
+	 * time after {@link #releaseWidget()}.
+	 *
+	 * @return the root widget for this page.
+	 */
+	public final Widget getWidget() {
+		Widget widget = this.widget;
+		if (widget == null) {
+			widget = createWidget();
+			this.widget = widget;
+		}
+		return widget;
+	}
+
+	/**
+	 * Releases the widget of the page, it is created again the next time the page is shown.
+	 */
+	public void releaseWidget() {
+		this.widget = null;
+	}
+
+	/**
+	 * Gets the size of the heap retained by the widget of the page while it is not shown.
+	 *
+	 * <p>
+	 * The size is an estimation given by the page from the widgets it creates, it is used to bound the pages kept with
+	 * their widget (see {@link PageCache}).
+	 *
+	 * @return the heap size of the widget, in bytes.
+	 */
+	public abstract int getHeapSize();
+
+	/**
+	 * Gets the size of the images heap retained by the widget of the page while it is not shown.
+	 *
+	 * <p>
+	 * By default, it returns <code>0</code>: the widgets close their images when they are detached. Subclasses whose
+	 * widgets keep images while they are detached must override this method.
+	 *
+	 * @return the images heap size of the widget, in bytes.
+	 */
+	public int getImagesHeapSize() {
+		return 0;
+	}
+
+	/**
+	 * Creates the widget that represents the content of the page.
+	 *
 	 * @return the root widget for this page.
 	 */
-	public abstract Widget getWidget();
+	protected abstract Widget createWidget();
+
+	/**
+	 * Creates the stylesheet of the page.
+	 *
+	 * <p>
+	 * The stylesheet is created once per page class and shared by all the pages of this class (see
+	 * {@link Main#showPage(Page)}), so it must not depend on the state of the page.
+	 *
+	 * <p>
+	 * By default, it creates a {@link CascadingStylesheet} with the default style of the application, populated by
+	 * {@link #populateStylesheet(CascadingStylesheet)}.
+	 *
+	 * @return the stylesheet of the page.
+	 */
+	public Stylesheet createStylesheet() {
+		CascadingStylesheet stylesheet = new CascadingStylesheet();
+		Main.populateDefaultStyle(stylesheet.getDefaultStyle());
+		populateStylesheet(stylesheet);
+		return stylesheet;
+	}
 
 	/**
 	 * Populates the given stylesheet with the style of the page.
@@ -39,6 +115,20 @@ public abstract class Page implements Observer {
 
 	@Override
 	public void update() {
+		update(Model.getInstance().getChangedFields());
+	}
+
+	/**
+	 * Notifies that some fields of the data model changed.
+	 *
+	 * <p>
+	 * Subclasses can use the given mask to update only the widgets that show the changed fields.
+	 *
+	 * @param changedFields
+	 *            the mask of the changed fields (see {@link Model#HEART_RATE}, {@link Model#STEP_COUNT},
+	 *            {@link Model#BATTERY_LEVEL}).
+	 */
+	public void update(int changedFields) {
 		// do nothing by default.
 	}
 }
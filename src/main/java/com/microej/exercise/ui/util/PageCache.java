@@ -0,0 +1,183 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.annotation.Nullable;
+
+/**
+ * A cache of {@link Page} identified by integer keys, bounded by a number of pages and by budgets of the heap and of
+ * the images heap retained by their widgets, as reported by the pages (see {@link Page#getHeapSize()} and
+ * {@link Page#getImagesHeapSize()}).
+ *
+ * <p>
+ * The pages are kept with their widget, so that showing a cached page again only attaches its widget to the desktop.
+ * When there is not enough room for a new page, the widgets of the least recently used pages are released (see
+ * {@link Page#releaseWidget()}) and the pages are removed from the cache.
+ *
+ * <p>
+ * This class is not thread-safe: it is meant to be used in the MicroUI thread only.
+ */
+public class PageCache {
+
+	private final int heapBudget;
+
+	private final int imagesHeapBudget;
+
+	private final int[] keys;
+
+	private final Page[] pages;
+
+	private final int[] lastUses;
+
+	private int count;
+
+	private int useCounter;
+
+	/**
+	 * Creates a page cache.
+	 *
+	 * @param capacity
+	 *            the maximum number of pages in the cache.
+	 * @param heapBudget
+	 *            the maximum heap size of the widgets of the pages in the cache, in bytes.
+	 * @param imagesHeapBudget
+	 *            the maximum images heap size of the widgets of the pages in the cache, in bytes.
+	 */
+	public PageCache(int capacity, int heapBudget, int imagesHeapBudget) {
+		this.heapBudget = heapBudget;
+		this.imagesHeapBudget = imagesHeapBudget;
+		this.keys = new int[capacity];
+		this.pages = new Page[capacity];
+		this.lastUses = new int[capacity];
+	}
+
+	/**
+	 * Gets the page associated to the given key and marks it as the most recently used one.
+	 *
+	 * @param key
+	 *            the key of the page.
+	 * @return the page, or <code>null</code> if there is no page for this key in the cache.
+	 */
+	@Nullable
+	public Page get(int key) {
+		int index = indexOf(key);
+		if (index == -1) {
+			return null;
+		}
+		this.lastUses[index] = ++this.useCounter;
+		return this.pages[index];
+	}
+
+	/**
+	 * Puts a page in the cache.
+	 *
+	 * <p>
+	 * The widget of the page is expected to be created and laid out already (see {@link Page#getWidget()}), so that
+	 * the images it keeps are known. The least recently used pages are released to make room for it.
+	 *
+	 * @param key
+	 *            the key of the page.
+	 * @param page
+	 *            the page to store.
+	 * @return <code>true</code> if the page has been put in the cache, <code>false</code> if its widget is larger than
+	 *         the budgets of the cache.
+	 */
+	public boolean put(int key, Page page) {
+		int index = indexOf(key);
+		if (index != -1) {
+			if (this.pages[index] == page) {
+				this.lastUses[index] = ++this.useCounter;
+				return true;
+			}
+			removeAt(index);
+		}
+		int heapSize = page.getHeapSize();
+		int imagesHeapSize = page.getImagesHeapSize();
+		if (heapSize > this.heapBudget || imagesHeapSize > this.imagesHeapBudget) {
+			return false;
+		}
+		while (this.count > 0 && (this.count == this.keys.length || getUsedHeapSize() + heapSize > this.heapBudget
+				|| getUsedImagesHeapSize() + imagesHeapSize > this.imagesHeapBudget)) {
+			removeAt(indexOfLeastRecentlyUsed());
+		}
+		index = this.count++;
+		this.keys[index] = key;
+		this.pages[index] = page;
+		this.lastUses[index] = ++this.useCounter;
+		return true;
+	}
+
+	/**
+	 * Releases all the pages of the cache and empties it.
+	 */
+	public void clear() {
+		while (this.count > 0) {
+			removeAt(this.count - 1);
+		}
+	}
+
+	/**
+	 * Gets the heap size of the widgets of the pages in the cache.
+	 *
+	 * @return the heap size of the widgets, in bytes.
+	 */
+	public int getUsedHeapSize() {
+		Page[] pages = this.pages;
+		int usedSize = 0;
+		for (int i = 0; i < this.count; i++) {
+			usedSize += pages[i].getHeapSize();
+		}
+		return usedSize;
+	}
+
+	/**
+	 * Gets the images heap size of the widgets of the pages in the cache.
+	 *
+	 * @return the images heap size of the widgets, in bytes.
+	 */
+	public int getUsedImagesHeapSize() {
+		Page[] pages = this.pages;
+		int usedSize = 0;
+		for (int i = 0; i < this.count; i++) {
+			usedSize += pages[i].getImagesHeapSize();
+		}
+		return usedSize;
+	}
+
+	private int indexOf(int key) {
+		int[] keys = this.keys;
+		for (int i = this.count - 1; i >= 0; i--) {
+			if (keys[i] == key) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int indexOfLeastRecentlyUsed() {
+		int[] lastUses = this.lastUses;
+		int leastIndex = 0;
+		for (int i = 1; i < this.count; i++) {
+			// compares the differences so that the wrap-around of the counter is supported
+			if (lastUses[i] - lastUses[leastIndex] < 0) {
+				leastIndex = i;
+			}
+		}
+		return leastIndex;
+	}
+
+	private void removeAt(int index) {
+		this.pages[index].releaseWidget();
+
+		// moves the last entry to the freed slot
+		int last = --this.count;
+		this.keys[index] = this.keys[last];
+		this.pages[index] = this.pages[last];
+		this.lastUses[index] = this.lastUses[last];
+		this.pages[last] = null;
+	}
+}
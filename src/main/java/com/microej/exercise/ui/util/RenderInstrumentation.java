@@ -0,0 +1,234 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import com.microej.exercise.ui.style.Fonts;
+import ej.bon.Util;
+import ej.microui.display.Colors;
+import ej.microui.display.Display;
+import ej.microui.display.Font;
+import ej.microui.display.GraphicsContext;
+import ej.microui.display.Painter;
+import ej.mwt.Container;
+import ej.mwt.Widget;
+
+/**
+ * A render monitor that helps finding the rendering hot spots of the application.
+ *
+ * <p>
+ * It records the duration of each frame and the widgets repainted by each frame: the rendered widget and its shown
+ * descendants that intersect the rendered area. It shows the frame rate and the average frame duration in a small
+ * overlay at the top of the display, and periodically prints a summary on the standard output: the frame statistics
+ * followed by the renders and repainted pixels of each widget type.
+ *
+ * <p>
+ * The overlay is drawn in each frame once it has been rendered and before it is flushed, so it is flushed with the
+ * frame and it is not part of the measured duration.
+ */
+public class RenderInstrumentation implements RenderMonitor {
+
+	private static final String PREFIX = "[render] "; //$NON-NLS-1$
+
+	/** The period of the console summaries, in milliseconds. */
+	private static final int SUMMARY_PERIOD = 5000;
+
+	/** The period of the overlay updates, in milliseconds. */
+	private static final int OVERLAY_PERIOD = 1000;
+
+	/** The maximum number of widget types in the summary, the renders of the other types are not detailed. */
+	private static final int MAX_WIDGET_TYPES = 16;
+
+	private static final int OVERLAY_Y = 8;
+	private static final int OVERLAY_PADDING = 2;
+	private static final int OVERLAY_COLOR = Colors.YELLOW;
+
+	private static final int NANOSECONDS_IN_MICROSECOND = 1000;
+	private static final int MICROSECONDS_IN_MILLISECOND = 1000;
+	private static final int MILLISECONDS_IN_SECOND = 1000;
+	private static final int TEN = 10;
+
+	// Statistics of the current summary period (the render requests are counted in any thread).
+	private final Class<?>[] widgetTypes;
+	private final int[] typeRenders;
+	private final long[] typePixels;
+	private int typeCount;
+	private int summaryRequests;
+	private int summaryFrames;
+	private long summaryDuration;
+	private long summaryMaxDuration;
+	private long summaryPixels;
+	private long summaryStart;
+
+	// Statistics of the current overlay period.
+	private int overlayFrames;
+	private long overlayDuration;
+	private long overlayStart;
+	private String overlayText;
+
+	/**
+	 * Creates a render instrumentation.
+	 */
+	public RenderInstrumentation() {
+		this.widgetTypes = new Class<?>[MAX_WIDGET_TYPES];
+		this.typeRenders = new int[MAX_WIDGET_TYPES];
+		this.typePixels = new long[MAX_WIDGET_TYPES];
+		long now = Util.platformTimeMillis();
+		this.summaryStart = now;
+		this.overlayStart = now;
+		this.overlayText = ""; //$NON-NLS-1$
+	}
+
+	@Override
+	public synchronized void onRenderRequested(Widget widget, int x, int y, int width, int height) {
+		this.summaryRequests++;
+	}
+
+	@Override
+	public void onFrameRendered(GraphicsContext g, Widget widget, int x, int y, int width, int height,
+			long duration) {
+		long now = Util.platformTimeMillis();
+		synchronized (this) {
+			// records the widgets repainted by the frame, in absolute coordinates
+			int areaX = widget.getAbsoluteX() + x;
+			int areaY = widget.getAbsoluteY() + y;
+			recordRenderedWidgets(widget, areaX, areaY, areaX + width, areaY + height);
+
+			this.summaryFrames++;
+			this.summaryDuration += duration;
+			this.summaryMaxDuration = Math.max(this.summaryMaxDuration, duration);
+			this.summaryPixels += (long) width * height;
+			this.overlayFrames++;
+			this.overlayDuration += duration;
+		}
+
+		if (now - this.overlayStart >= OVERLAY_PERIOD) {
+			updateOverlay(now);
+		}
+		drawOverlay(g);
+		if (now - this.summaryStart >= SUMMARY_PERIOD) {
+			printSummary(now);
+		}
+	}
+
+	/**
+	 * Records a rendered widget and its shown descendants that intersect the rendered area.
+	 */
+	private void recordRenderedWidgets(Widget widget, int areaLeft, int areaTop, int areaRight, int areaBottom) {
+		int left = Math.max(widget.getAbsoluteX(), areaLeft);
+		int top = Math.max(widget.getAbsoluteY(), areaTop);
+		int right = Math.min(widget.getAbsoluteX() + widget.getWidth(), areaRight);
+		int bottom = Math.min(widget.getAbsoluteY() + widget.getHeight(), areaBottom);
+		if (left >= right || top >= bottom) {
+			// not repainted, its children are clipped by its bounds
+			return;
+		}
+
+		int index = indexOfType(widget.getClass());
+		if (index != -1) {
+			this.typeRenders[index]++;
+			this.typePixels[index] += (long) (right - left) * (bottom - top);
+		}
+
+		if (widget instanceof Container) {
+			Container container = (Container) widget;
+			int childrenCount = container.getChildrenCount();
+			for (int i = 0; i < childrenCount; i++) {
+				Widget child = container.getChild(i);
+				if (child.isShown()) {
+					recordRenderedWidgets(child, left, top, right, bottom);
+				}
+			}
+		}
+	}
+
+	private int indexOfType(Class<?> type) {
+		Class<?>[] widgetTypes = this.widgetTypes;
+		int typeCount = this.typeCount;
+		for (int i = 0; i < typeCount; i++) {
+			if (widgetTypes[i] == type) {
+				return i;
+			}
+		}
+		if (typeCount == widgetTypes.length) {
+			return -1;
+		}
+		widgetTypes[typeCount] = type;
+		this.typeCount = typeCount + 1;
+		return typeCount;
+	}
+
+	private synchronized void updateOverlay(long now) {
+		int frames = this.overlayFrames;
+		long elapsed = now - this.overlayStart;
+		StringBuilder builder = new StringBuilder();
+		builder.append(frames * MILLISECONDS_IN_SECOND / elapsed).append(" fps "); //$NON-NLS-1$
+		appendMilliseconds(builder, frames == 0 ? 0 : this.overlayDuration / frames);
+		this.overlayText = builder.toString();
+		this.overlayFrames = 0;
+		this.overlayDuration = 0;
+		this.overlayStart = now;
+	}
+
+	private void drawOverlay(GraphicsContext g) {
+		String text = this.overlayText;
+		if (text.length() == 0) {
+			return;
+		}
+		Font font = Fonts.getSmallFont();
+		int width = font.stringWidth(text) + 2 * OVERLAY_PADDING;
+		int height = font.getHeight() + 2 * OVERLAY_PADDING;
+		int x = (Display.getDisplay().getWidth() - width) / 2;
+		// the graphics context is translated and clipped to the rendered widget, the overlay is in absolute coordinates
+		g.reset();
+		g.setColor(Colors.BLACK);
+		Painter.fillRectangle(g, x, OVERLAY_Y, width, height);
+		g.setColor(OVERLAY_COLOR);
+		Painter.drawString(g, text, font, x + OVERLAY_PADDING, OVERLAY_Y + OVERLAY_PADDING);
+	}
+
+	private synchronized void printSummary(long now) {
+		int frames = this.summaryFrames;
+		StringBuilder builder = new StringBuilder();
+		builder.append(PREFIX).append(now - this.summaryStart).append("ms"); //$NON-NLS-1$
+		builder.append(": frames=").append(frames); //$NON-NLS-1$
+		builder.append(" requests=").append(this.summaryRequests); //$NON-NLS-1$
+		builder.append(" avg="); //$NON-NLS-1$
+		appendMilliseconds(builder, frames == 0 ? 0 : this.summaryDuration / frames);
+		builder.append(" max="); //$NON-NLS-1$
+		appendMilliseconds(builder, this.summaryMaxDuration);
+		builder.append(" pixels=").append(this.summaryPixels); //$NON-NLS-1$
+		System.out.println(builder.toString());
+
+		// the widget types, in their order of first render
+		Class<?>[] widgetTypes = this.widgetTypes;
+		int[] typeRenders = this.typeRenders;
+		long[] typePixels = this.typePixels;
+		for (int i = 0; i < this.typeCount; i++) {
+			if (typeRenders[i] > 0) {
+				builder.setLength(0);
+				builder.append(PREFIX).append("  ").append(widgetTypes[i].getName()); //$NON-NLS-1$
+				builder.append(": renders=").append(typeRenders[i]); //$NON-NLS-1$
+				builder.append(" pixels=").append(typePixels[i]); //$NON-NLS-1$
+				System.out.println(builder.toString());
+			}
+			typeRenders[i] = 0;
+			typePixels[i] = 0;
+		}
+
+		this.summaryRequests = 0;
+		this.summaryFrames = 0;
+		this.summaryDuration = 0;
+		this.summaryMaxDuration = 0;
+		this.summaryPixels = 0;
+		this.summaryStart = now;
+	}
+
+	private static void appendMilliseconds(StringBuilder builder, long nanoseconds) {
+		long tenths = nanoseconds / NANOSECONDS_IN_MICROSECOND / (MICROSECONDS_IN_MILLISECOND / TEN);
+		builder.append(tenths / TEN).append('.').append(tenths % TEN).append("ms"); //$NON-NLS-1$
+	}
+}
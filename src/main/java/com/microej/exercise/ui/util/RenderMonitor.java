@@ -0,0 +1,59 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.microui.display.GraphicsContext;
+import ej.mwt.Widget;
+
+/**
+ * A monitor of the frames rendered by the desktop, see {@link MonitoredRenderPolicy}.
+ */
+public interface RenderMonitor {
+
+	/**
+	 * Notifies that a widget requested to be rendered.
+	 *
+	 * <p>
+	 * This method may be called in any thread.
+	 *
+	 * @param widget
+	 *            the widget to render.
+	 * @param x
+	 *            the x coordinate of the area to render, relative to the widget.
+	 * @param y
+	 *            the y coordinate of the area to render, relative to the widget.
+	 * @param width
+	 *            the width of the area to render.
+	 * @param height
+	 *            the height of the area to render.
+	 */
+	void onRenderRequested(Widget widget, int x, int y, int width, int height);
+
+	/**
+	 * Notifies that a frame has been rendered, before the display is flushed.
+	 *
+	 * <p>
+	 * This method is called in the MicroUI thread. The monitor may draw over the frame with the given graphics
+	 * context, the drawings are flushed with the frame.
+	 *
+	 * @param g
+	 *            the graphics context of the display.
+	 * @param widget
+	 *            the widget that has been rendered, with its children.
+	 * @param x
+	 *            the x coordinate of the rendered area, relative to the widget.
+	 * @param y
+	 *            the y coordinate of the rendered area, relative to the widget.
+	 * @param width
+	 *            the width of the rendered area.
+	 * @param height
+	 *            the height of the rendered area.
+	 * @param duration
+	 *            the duration of the render, in nanoseconds.
+	 */
+	void onFrameRendered(GraphicsContext g, Widget widget, int x, int y, int width, int height, long duration);
+}
@@ -0,0 +1,26 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.mwt.Widget;
+
+/**
+ * A listener of the render requests of the widgets, see {@link ListenableRenderPolicy}.
+ */
+public interface RenderRequestListener {
+
+	/**
+	 * Notifies that a widget requested to be rendered.
+	 *
+	 * <p>
+	 * This method may be called in any thread.
+	 *
+	 * @param widget
+	 *            the widget to render.
+	 */
+	void onRenderRequested(Widget widget);
+}
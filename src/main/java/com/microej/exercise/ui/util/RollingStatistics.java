@@ -0,0 +1,275 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+/**
+ * Statistics (count, sum, minimum, maximum, average, variance) of the samples of a metric over a sliding time window.
+ *
+ * <p>
+ * The window is split into buckets of a fixed duration. Each bucket aggregates its samples, and the window totals are
+ * updated incrementally when a sample is added or when the oldest bucket leaves the window. The minimum and the maximum
+ * are maintained with monotonic deques of buckets. Adding a sample is thus done in constant (amortized) time, without
+ * rescanning the samples and without allocating any object.
+ *
+ * <p>
+ * The window slides by steps of one bucket: it covers the current bucket and the previous ones, up to the window
+ * duration.
+ */
+public class RollingStatistics {
+
+	private final int bucketDuration;
+
+	// Aggregates of the buckets, as ring buffers.
+	private final int[] bucketStarts;
+	private final int[] bucketCounts;
+	private final long[] bucketSums;
+	private final long[] bucketSumsOfSquares;
+	private final int[] bucketMinimums;
+	private final int[] bucketMaximums;
+	private int head;
+	private int size;
+
+	// Buckets with increasing minimums (resp. decreasing maximums), from the oldest to the newest.
+	private final BucketDeque minimumDeque;
+	private final BucketDeque maximumDeque;
+
+	// Totals of the window.
+	private int count;
+	private long sum;
+	private long sumOfSquares;
+
+	/**
+	 * Creates statistics over a sliding window.
+	 *
+	 * @param windowDuration
+	 *            the duration of the window, in seconds.
+	 * @param bucketDuration
+	 *            the duration of a bucket, in seconds. The window duration should be a multiple of it.
+	 * @throws IllegalArgumentException
+	 *             if the bucket duration is not positive or longer than the window duration.
+	 */
+	public RollingStatistics(int windowDuration, int bucketDuration) {
+		if (bucketDuration <= 0 || bucketDuration > windowDuration) {
+			throw new IllegalArgumentException();
+		}
+		int bucketsCount = windowDuration / bucketDuration;
+		this.bucketDuration = bucketDuration;
+		this.bucketStarts = new int[bucketsCount];
+		this.bucketCounts = new int[bucketsCount];
+		this.bucketSums = new long[bucketsCount];
+		this.bucketSumsOfSquares = new long[bucketsCount];
+		this.bucketMinimums = new int[bucketsCount];
+		this.bucketMaximums = new int[bucketsCount];
+		this.minimumDeque = new BucketDeque(bucketsCount);
+		this.maximumDeque = new BucketDeque(bucketsCount);
+	}
+
+	/**
+	 * Adds a sample.
+	 *
+	 * @param value
+	 *            the value of the sample.
+	 * @param time
+	 *            the time of the sample, in seconds since Epoch. The samples must be added in chronological order.
+	 */
+	public synchronized void add(int value, int time) {
+		int bucketStart = time - time % this.bucketDuration;
+		int capacity = this.bucketStarts.length;
+
+		// removes the buckets that left the window
+		int windowStart = bucketStart - (capacity - 1) * this.bucketDuration;
+		while (this.size > 0 && this.bucketStarts[this.head] < windowStart) {
+			removeOldestBucket();
+		}
+
+		int bucket = getNewestBucket();
+		if (this.size == 0 || this.bucketStarts[bucket] != bucketStart) {
+			bucket = addBucket(bucketStart);
+		}
+
+		// updates the bucket and the window totals
+		long square = (long) value * value;
+		int bucketCount = this.bucketCounts[bucket];
+		if (bucketCount == 0 || value < this.bucketMinimums[bucket]) {
+			this.bucketMinimums[bucket] = value;
+		}
+		if (bucketCount == 0 || value > this.bucketMaximums[bucket]) {
+			this.bucketMaximums[bucket] = value;
+		}
+		this.bucketCounts[bucket] = bucketCount + 1;
+		this.bucketSums[bucket] += value;
+		this.bucketSumsOfSquares[bucket] += square;
+		this.count++;
+		this.sum += value;
+		this.sumOfSquares += square;
+
+		// keeps the minimums increasing and the maximums decreasing in the deques
+		BucketDeque minimumDeque = this.minimumDeque;
+		if (!minimumDeque.isEmpty() && minimumDeque.getLast() == bucket) {
+			minimumDeque.removeLast();
+		}
+		int minimum = this.bucketMinimums[bucket];
+		while (!minimumDeque.isEmpty() && this.bucketMinimums[minimumDeque.getLast()] >= minimum) {
+			minimumDeque.removeLast();
+		}
+		minimumDeque.addLast(bucket);
+
+		BucketDeque maximumDeque = this.maximumDeque;
+		if (!maximumDeque.isEmpty() && maximumDeque.getLast() == bucket) {
+			maximumDeque.removeLast();
+		}
+		int maximum = this.bucketMaximums[bucket];
+		while (!maximumDeque.isEmpty() && this.bucketMaximums[maximumDeque.getLast()] <= maximum) {
+			maximumDeque.removeLast();
+		}
+		maximumDeque.addLast(bucket);
+	}
+
+	/**
+	 * Gets the number of samples in the window.
+	 *
+	 * @return the number of samples.
+	 */
+	public synchronized int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Gets the sum of the samples in the window.
+	 *
+	 * @return the sum of the samples.
+	 */
+	public synchronized long getSum() {
+		return this.sum;
+	}
+
+	/**
+	 * Gets the minimum of the samples in the window.
+	 *
+	 * @return the minimum, or <code>0</code> if there is no sample.
+	 */
+	public synchronized int getMinimum() {
+		BucketDeque deque = this.minimumDeque;
+		return deque.isEmpty() ? 0 : this.bucketMinimums[deque.getFirst()];
+	}
+
+	/**
+	 * Gets the maximum of the samples in the window.
+	 *
+	 * @return the maximum, or <code>0</code> if there is no sample.
+	 */
+	public synchronized int getMaximum() {
+		BucketDeque deque = this.maximumDeque;
+		return deque.isEmpty() ? 0 : this.bucketMaximums[deque.getFirst()];
+	}
+
+	/**
+	 * Gets the average of the samples in the window.
+	 *
+	 * @return the average, or <code>0</code> if there is no sample.
+	 */
+	public synchronized float getAverage() {
+		int count = this.count;
+		return count == 0 ? 0 : (float) this.sum / count;
+	}
+
+	/**
+	 * Gets the (population) variance of the samples in the window.
+	 *
+	 * @return the variance, or <code>0</code> if there is no sample.
+	 */
+	public synchronized float getVariance() {
+		int count = this.count;
+		if (count == 0) {
+			return 0;
+		}
+		float average = (float) this.sum / count;
+		return Math.max(0, (float) this.sumOfSquares / count - average * average);
+	}
+
+	private int getNewestBucket() {
+		int index = this.head + this.size - 1;
+		int capacity = this.bucketStarts.length;
+		return index >= capacity ? index - capacity : index;
+	}
+
+	private int addBucket(int bucketStart) {
+		if (this.size == this.bucketStarts.length) {
+			removeOldestBucket();
+		}
+		this.size++;
+		int bucket = getNewestBucket();
+		this.bucketStarts[bucket] = bucketStart;
+		this.bucketCounts[bucket] = 0;
+		this.bucketSums[bucket] = 0;
+		this.bucketSumsOfSquares[bucket] = 0;
+		return bucket;
+	}
+
+	private void removeOldestBucket() {
+		int bucket = this.head;
+		this.count -= this.bucketCounts[bucket];
+		this.sum -= this.bucketSums[bucket];
+		this.sumOfSquares -= this.bucketSumsOfSquares[bucket];
+
+		if (!this.minimumDeque.isEmpty() && this.minimumDeque.getFirst() == bucket) {
+			this.minimumDeque.removeFirst();
+		}
+		if (!this.maximumDeque.isEmpty() && this.maximumDeque.getFirst() == bucket) {
+			this.maximumDeque.removeFirst();
+		}
+
+		int nextHead = bucket + 1;
+		this.head = nextHead == this.bucketStarts.length ? 0 : nextHead;
+		this.size--;
+	}
+
+	/**
+	 * A double-ended queue of bucket indices, backed by a ring buffer.
+	 */
+	private static class BucketDeque {
+
+		private final int[] buckets;
+		private int head;
+		private int size;
+
+		private BucketDeque(int capacity) {
+			this.buckets = new int[capacity];
+		}
+
+		private boolean isEmpty() {
+			return this.size == 0;
+		}
+
+		private int getFirst() {
+			return this.buckets[this.head];
+		}
+
+		private int getLast() {
+			return this.buckets[wrap(this.head + this.size - 1)];
+		}
+
+		private void addLast(int bucket) {
+			this.buckets[wrap(this.head + this.size)] = bucket;
+			this.size++;
+		}
+
+		private void removeFirst() {
+			this.head = wrap(this.head + 1);
+			this.size--;
+		}
+
+		private void removeLast() {
+			this.size--;
+		}
+
+		private int wrap(int index) {
+			int capacity = this.buckets.length;
+			return index >= capacity ? index - capacity : index;
+		}
+	}
+}
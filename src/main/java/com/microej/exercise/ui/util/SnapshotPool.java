@@ -0,0 +1,128 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.microui.display.BufferedImage;
+
+/**
+ * A pool of {@link BufferedImage} used to hold snapshots of widgets.
+ *
+ * <p>
+ * The images are kept open once released, so that the next snapshots of the same size reuse them without allocating
+ * in the images heap. An image is allocated again only when the requested size differs from the size of all the free
+ * images.
+ *
+ * <p>
+ * This class is not thread-safe: it is meant to be used in the MicroUI thread only.
+ */
+public class SnapshotPool {
+
+	private final BufferedImage[] images;
+
+	private final boolean[] acquired;
+
+	/**
+	 * Creates a snapshot pool.
+	 *
+	 * @param capacity
+	 *            the maximum number of images in the pool.
+	 */
+	public SnapshotPool(int capacity) {
+		this.images = new BufferedImage[capacity];
+		this.acquired = new boolean[capacity];
+	}
+
+	/**
+	 * Gets the maximum number of images in the pool.
+	 *
+	 * @return the capacity of the pool.
+	 */
+	public int getCapacity() {
+		return this.images.length;
+	}
+
+	/**
+	 * Acquires an image of the given size.
+	 *
+	 * <p>
+	 * The content of the image is undefined: it may hold a previous snapshot.
+	 *
+	 * @param width
+	 *            the width of the image.
+	 * @param height
+	 *            the height of the image.
+	 * @return an image of the given size.
+	 * @throws IllegalStateException
+	 *             if all the images of the pool are already acquired.
+	 */
+	public BufferedImage acquire(int width, int height) {
+		BufferedImage[] images = this.images;
+		boolean[] acquired = this.acquired;
+		int freeIndex = -1;
+		for (int i = 0; i < images.length; i++) {
+			if (!acquired[i]) {
+				BufferedImage image = images[i];
+				if (image != null && image.getWidth() == width && image.getHeight() == height) {
+					// reuses an image of the same size
+					acquired[i] = true;
+					return image;
+				}
+				if (freeIndex == -1 || image == null) {
+					// prefers an empty slot to avoid closing an image that could be reused later
+					freeIndex = i;
+				}
+			}
+		}
+		if (freeIndex == -1) {
+			throw new IllegalStateException();
+		}
+
+		// frees the images heap before allocating the new image
+		BufferedImage image = images[freeIndex];
+		if (image != null) {
+			image.close();
+		}
+		image = new BufferedImage(width, height);
+		images[freeIndex] = image;
+		acquired[freeIndex] = true;
+		return image;
+	}
+
+	/**
+	 * Releases an image acquired from this pool. The image stays open, ready to be acquired again.
+	 *
+	 * @param image
+	 *            the image to release.
+	 */
+	public void release(BufferedImage image) {
+		BufferedImage[] images = this.images;
+		for (int i = 0; i < images.length; i++) {
+			if (images[i] == image) {
+				this.acquired[i] = false;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Closes all the images of the pool.
+	 *
+	 * <p>
+	 * The images must not be used after this call.
+	 */
+	public void clear() {
+		BufferedImage[] images = this.images;
+		for (int i = 0; i < images.length; i++) {
+			BufferedImage image = images[i];
+			if (image != null) {
+				image.close();
+				images[i] = null;
+			}
+			this.acquired[i] = false;
+		}
+	}
+}
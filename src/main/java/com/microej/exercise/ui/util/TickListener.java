@@ -0,0 +1,24 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+/**
+ * A listener of the ticks of the {@link TickScheduler}.
+ */
+public interface TickListener {
+
+	/**
+	 * Notifies that a tick occurred.
+	 *
+	 * <p>
+	 * This method is called in the MicroUI thread, so the listener can update its widgets directly.
+	 *
+	 * @param time
+	 *            the time of the tick, rounded to its second, in milliseconds since Epoch.
+	 */
+	void onTick(long time);
+}
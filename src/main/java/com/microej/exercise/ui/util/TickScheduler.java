@@ -0,0 +1,220 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+import ej.annotation.Nullable;
+import ej.basictool.ArrayTools;
+import ej.bon.TimerTask;
+import ej.bon.Util;
+import ej.microui.MicroUI;
+
+/**
+ * Notifies listeners on the wall-clock second or minute boundaries.
+ *
+ * <p>
+ * A single periodic task, aligned on the seconds of {@link Util#currentTimeMillis()}, drives all the listeners. The task
+ * runs every second while there is at least one {@link #SECOND} listener, and only on the minute boundaries otherwise:
+ * it is rescheduled when the first {@link #SECOND} listener is added or the last one is removed. At each tick, the listeners that are due are notified together in one call in the MicroUI thread, so that their render
+ * requests are handled in the same pass. The listeners receive the time of the second boundary of the tick, so that a
+ * tick that fires slightly early does not show the previous second.
+ *
+ * <p>
+ * The task runs only while there is at least one listener.
+ */
+public class TickScheduler {
+
+	/** The granularity of the listeners that must be notified every second. */
+	public static final int SECOND = 0;
+
+	/** The granularity of the listeners that must be notified every minute. */
+	public static final int MINUTE = 1;
+
+	private static final int MILLISECONDS_IN_SECOND = 1000;
+
+	private static final int MILLISECONDS_IN_MINUTE = 60 * MILLISECONDS_IN_SECOND;
+
+	/** The maximum delay between a tick and the second (or minute) boundary before the task is realigned. */
+	private static final int DRIFT_TOLERANCE = 50;
+
+	private static final TickScheduler INSTANCE = new TickScheduler();
+
+	private TickListener[] secondListeners;
+
+	private TickListener[] minuteListeners;
+
+	private final Runnable notifier;
+
+	@Nullable
+	private TimerTask task;
+
+	private int period;
+
+	private long lastMinute;
+
+	private long tickTime;
+
+	private boolean minuteDue;
+
+	private boolean notificationPending;
+
+	private TickScheduler() {
+		this.secondListeners = new TickListener[0];
+		this.minuteListeners = new TickListener[0];
+		this.notifier = new Runnable() {
+
+			@Override
+			public void run() {
+				notifyListeners();
+			}
+		};
+	}
+
+	/**
+	 * Gets the tick scheduler instance to use across the application.
+	 *
+	 * @return the sole tick scheduler instance.
+	 */
+	public static TickScheduler getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Adds a listener to notify with the given granularity.
+	 *
+	 * @param listener
+	 *            the listener to add.
+	 * @param granularity
+	 *            the granularity of the notifications, either {@link #SECOND} or {@link #MINUTE}.
+	 * @throws IllegalArgumentException
+	 *             if the given granularity is not valid.
+	 */
+	public synchronized void subscribe(TickListener listener, int granularity) {
+		if (granularity == SECOND) {
+			this.secondListeners = ArrayTools.add(this.secondListeners, listener);
+		} else if (granularity == MINUTE) {
+			this.minuteListeners = ArrayTools.add(this.minuteListeners, listener);
+		} else {
+			throw new IllegalArgumentException();
+		}
+
+		if (this.task == null) {
+			start();
+		} else if (granularity == SECOND && this.period != MILLISECONDS_IN_SECOND) {
+			// the task runs on the minute boundaries, it has to run every second now
+			stop();
+			start();
+		}
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * <p>
+	 * Nothing is done if the listener has not been added.
+	 *
+	 * @param listener
+	 *            the listener to remove.
+	 */
+	public synchronized void unsubscribe(TickListener listener) {
+		this.secondListeners = ArrayTools.remove(this.secondListeners, listener);
+		this.minuteListeners = ArrayTools.remove(this.minuteListeners, listener);
+
+		if (this.secondListeners.length == 0) {
+			if (this.minuteListeners.length == 0) {
+				stop();
+			} else if (this.period != MILLISECONDS_IN_MINUTE) {
+				// no more listeners to notify every second, the task can run on the minute boundaries only
+				stop();
+				start();
+			}
+		}
+	}
+
+	private void start() {
+		long currentTime = Util.currentTimeMillis();
+		this.lastMinute = roundToSecond(currentTime) / MILLISECONDS_IN_MINUTE;
+
+		TimerTask task = new TimerTask() {
+
+			@Override
+			public void run() {
+				tick();
+			}
+		};
+
+		// the first tick happens on the next second (or minute) boundary, then every second (or minute)
+		int period = this.secondListeners.length > 0 ? MILLISECONDS_IN_SECOND : MILLISECONDS_IN_MINUTE;
+		long delay = period - currentTime % period;
+		TimeHelper.getTimer().scheduleAtFixedRate(task, delay, period);
+		this.task = task;
+		this.period = period;
+	}
+
+	private void stop() {
+		TimerTask task = this.task;
+		if (task != null) {
+			task.cancel();
+			this.task = null;
+		}
+	}
+
+	private synchronized void tick() {
+		long currentTime = Util.currentTimeMillis();
+
+		// the application time may have been changed (or the timer may have drifted): realigns the task
+		int period = this.period;
+		long drift = currentTime % period;
+		if (drift > DRIFT_TOLERANCE && drift < period - DRIFT_TOLERANCE) {
+			stop();
+			start();
+		}
+
+		long tickTime = roundToSecond(currentTime);
+		long minute = tickTime / MILLISECONDS_IN_MINUTE;
+		if (minute != this.lastMinute) {
+			this.lastMinute = minute;
+			this.minuteDue = true;
+		}
+		this.tickTime = tickTime;
+
+		// coalesces the notifications of all the due listeners in a single call in the MicroUI thread
+		if (!this.notificationPending && (this.secondListeners.length > 0 || this.minuteDue)) {
+			this.notificationPending = true;
+			MicroUI.callSerially(this.notifier);
+		}
+	}
+
+	/**
+	 * Rounds a time to the second boundary it belongs to, a time up to the drift tolerance before a boundary belongs to
+	 * this boundary.
+	 */
+	private static long roundToSecond(long time) {
+		return (time + DRIFT_TOLERANCE) / MILLISECONDS_IN_SECOND * MILLISECONDS_IN_SECOND;
+	}
+
+	private void notifyListeners() {
+		TickListener[] secondListeners;
+		TickListener[] minuteListeners;
+		long time;
+		synchronized (this) {
+			this.notificationPending = false;
+			secondListeners = this.secondListeners;
+			minuteListeners = this.minuteDue ? this.minuteListeners : null;
+			this.minuteDue = false;
+			time = this.tickTime;
+		}
+
+		for (TickListener listener : secondListeners) {
+			listener.onTick(time);
+		}
+		if (minuteListeners != null) {
+			for (TickListener listener : minuteListeners) {
+				listener.onTick(time);
+			}
+		}
+	}
+}
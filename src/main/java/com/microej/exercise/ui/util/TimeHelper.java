@@ -34,6 +34,20 @@ public class TimeHelper {
 	private static final int MILLISECONDS_IN_DAY = HOURS_IN_DAY * MINUTES_IN_HOUR * SECONDS_IN_MINUTE
 			* MILLISECONDS_IN_SECOND;
 
+	/** The number of characters of a clock formatted with the pattern <code>hh:mm</code>. */
+	public static final int CLOCK_LENGTH = 5;
+
+	/** The number of characters of a value formatted with the pattern <code>ss</code>. */
+	public static final int SECONDS_LENGTH = 2;
+
+	private static final int DIGITS_PER_VALUE = 2;
+
+	/**
+	 * The two-digit representations of the values from <code>00</code> to <code>59</code>, one after the other (the
+	 * representation of <code>n</code> starts at index <code>2 * n</code>).
+	 */
+	private static final char[] TWO_DIGITS = createTwoDigitsTable();
+
 	private static final Timer TIMER_INSTANCE = new Timer();
 
 	private TimeHelper() {
@@ -115,6 +129,36 @@ public class TimeHelper {
 		return pad(computeSeconds(time));
 	}
 
+	/**
+	 * Formats the time with the pattern <code>hh:mm</code> into the given buffer, without allocating any object.
+	 *
+	 * @param time
+	 *            a time, in milliseconds since Epoch.
+	 * @param buffer
+	 *            the buffer to write into, its length must be at least {@link #CLOCK_LENGTH}.
+	 * @return the number of characters written (i.e., {@link #CLOCK_LENGTH}).
+	 */
+	public static int formatClock(long time, char[] buffer) {
+		writeTwoDigits((int) (time % MILLISECONDS_IN_DAY / MS_IN_HOUR), buffer, 0);
+		buffer[DIGITS_PER_VALUE] = CLOCK_SEPARATOR;
+		writeTwoDigits((int) (time % MS_IN_HOUR / MS_IN_MINUTES), buffer, DIGITS_PER_VALUE + 1);
+		return CLOCK_LENGTH;
+	}
+
+	/**
+	 * Formats the second with the pattern <code>ss</code> into the given buffer, without allocating any object.
+	 *
+	 * @param time
+	 *            a time, in milliseconds since Epoch.
+	 * @param buffer
+	 *            the buffer to write into, its length must be at least {@link #SECONDS_LENGTH}.
+	 * @return the number of characters written (i.e., {@link #SECONDS_LENGTH}).
+	 */
+	public static int formatSeconds(long time, char[] buffer) {
+		writeTwoDigits(computeSeconds(time), buffer, 0);
+		return SECONDS_LENGTH;
+	}
+
 	/**
 	 * Formats the time with the pattern <code>hh:mm</code>, given the given time.
 	 *
@@ -142,4 +186,31 @@ public class TimeHelper {
 		return builder.toString();
 	}
 
+	/**
+	 * Writes the two-digit representation of the given value (between <code>0</code> and <code>59</code>) into the
+	 * given buffer.
+	 *
+	 * @param value
+	 *            the value to write.
+	 * @param buffer
+	 *            the buffer to write into.
+	 * @param offset
+	 *            the index of the first character to write in the buffer.
+	 */
+	private static void writeTwoDigits(int value, char[] buffer, int offset) {
+		int index = value * DIGITS_PER_VALUE;
+		buffer[offset] = TWO_DIGITS[index];
+		buffer[offset + 1] = TWO_DIGITS[index + 1];
+	}
+
+	private static char[] createTwoDigitsTable() {
+		int max = Math.max(MINUTES_IN_HOUR, SECONDS_IN_MINUTE);
+		char[] table = new char[max * DIGITS_PER_VALUE];
+		for (int i = 0; i < max; i++) {
+			table[i * DIGITS_PER_VALUE] = (char) (PAD_CHARACTER + i / PAD_THRESHOLD);
+			table[i * DIGITS_PER_VALUE + 1] = (char) (PAD_CHARACTER + i % PAD_THRESHOLD);
+		}
+		return table;
+	}
+
 }
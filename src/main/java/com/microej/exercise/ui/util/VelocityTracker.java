@@ -0,0 +1,123 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.util;
+
+/**
+ * Estimates the velocity of a pointer along one axis from its last positions.
+ *
+ * <p>
+ * The samples are kept in a fixed-size ring. The velocity is the slope of the least-squares line fitted to the recent
+ * samples, which is less sensitive to the irregularities of the pointer events than the slope between two points.
+ *
+ * <p>
+ * This class is not thread-safe: it is meant to be used in the MicroUI thread only (e.g., while handling events).
+ */
+public class VelocityTracker {
+
+	private final int[] positions;
+
+	private final long[] times;
+
+	private final int window;
+
+	private int last;
+
+	private int count;
+
+	/**
+	 * Creates a velocity tracker.
+	 *
+	 * @param capacity
+	 *            the maximum number of samples to keep.
+	 * @param window
+	 *            the maximum age of the samples used to estimate the velocity, in milliseconds.
+	 */
+	public VelocityTracker(int capacity, int window) {
+		if (capacity < 2) {
+			throw new IllegalArgumentException();
+		}
+		this.positions = new int[capacity];
+		this.times = new long[capacity];
+		this.window = window;
+	}
+
+	/**
+	 * Forgets all the samples, to start tracking a new gesture.
+	 */
+	public void reset() {
+		this.count = 0;
+	}
+
+	/**
+	 * Adds a sample.
+	 *
+	 * @param position
+	 *            the position of the pointer, in pixels.
+	 * @param time
+	 *            the time of the sample, in milliseconds.
+	 */
+	public void addSample(int position, long time) {
+		int capacity = this.positions.length;
+		int index = (this.count == 0 ? 0 : (this.last + 1) % capacity);
+		this.positions[index] = position;
+		this.times[index] = time;
+		this.last = index;
+		this.count = Math.min(this.count + 1, capacity);
+	}
+
+	/**
+	 * Gets the velocity of the pointer at the given time.
+	 *
+	 * <p>
+	 * Only the samples in the window before the given time are taken into account: if the pointer has not moved for
+	 * a while, the velocity is zero.
+	 *
+	 * @param time
+	 *            the current time, in milliseconds.
+	 * @return the velocity, in pixels per millisecond.
+	 */
+	public float getVelocity(long time) {
+		int[] positions = this.positions;
+		long[] times = this.times;
+		int capacity = positions.length;
+		long oldest = time - this.window;
+
+		// computes the means of the recent samples, the times are relative to the last sample to keep the precision
+		long lastTime = times[this.last];
+		int sampleCount = 0;
+		float timeSum = 0;
+		float positionSum = 0;
+		for (int i = 0; i < this.count; i++) {
+			int index = (this.last - i + capacity) % capacity;
+			if (times[index] < oldest) {
+				break;
+			}
+			timeSum += times[index] - lastTime;
+			positionSum += positions[index];
+			sampleCount++;
+		}
+		if (sampleCount < 2) {
+			return 0;
+		}
+		float timeMean = timeSum / sampleCount;
+		float positionMean = positionSum / sampleCount;
+
+		// least-squares slope
+		float covariance = 0;
+		float variance = 0;
+		for (int i = 0; i < sampleCount; i++) {
+			int index = (this.last - i + capacity) % capacity;
+			float deltaTime = times[index] - lastTime - timeMean;
+			covariance += deltaTime * (positions[index] - positionMean);
+			variance += deltaTime * deltaTime;
+		}
+		if (variance == 0) {
+			return 0;
+		}
+		return covariance / variance;
+	}
+}
@@ -9,7 +9,9 @@ package com.microej.exercise.ui.watchface;
 import com.microej.exercise.ui.style.ClassIdentifiers;
 import com.microej.exercise.ui.style.Fonts;
 import com.microej.exercise.ui.style.Images;
+import com.microej.exercise.ui.util.HeapSizes;
 import com.microej.exercise.ui.util.Model;
+import com.microej.exercise.ui.util.ModelSnapshot;
 import com.microej.exercise.ui.util.Page;
 import com.microej.exercise.ui.util.TimeHelper;
 import com.microej.exercise.ui.watchface.widget.BatteryLevel;
@@ -34,6 +36,15 @@ public class WatchfacePage extends Page {
 
 	private static final float TEN = 10;
 
+	// Widgets of the digital watchface: the icon labels (heart rate, steps and distance) with their icon and text, the
+	// clock with its characters and time, the battery level with its value and image, and the placeholder label.
+	private static final int ICON_LABELS = 3;
+	private static final int ICON_LABEL_FIELDS = 2;
+	private static final int MAX_VALUE_LENGTH = 8;
+	private static final int CLOCK_FIELDS = 4;
+	private static final int BATTERY_FIELDS = 2;
+	private static final int LABEL_FIELDS = 1;
+
 	private IconLabel heartRate;
 
 	private IconLabel steps;
@@ -43,7 +54,19 @@ public class WatchfacePage extends Page {
 	private BatteryLevel battery;
 
 	@Override
-	public Widget getWidget() {
+	public int getHeapSize() {
+		// the five widgets of the watchface with their images and texts, and the root label
+		int iconLabelSize = HeapSizes.getWidgetSize(ICON_LABEL_FIELDS) + HeapSizes.getImageSize()
+				+ HeapSizes.getStringSize(MAX_VALUE_LENGTH);
+		int clockSize = HeapSizes.getWidgetSize(CLOCK_FIELDS)
+				+ HeapSizes.getArraySize(TimeHelper.CLOCK_LENGTH, HeapSizes.CHAR_SIZE)
+				+ HeapSizes.getArraySize(TimeHelper.SECONDS_LENGTH, HeapSizes.CHAR_SIZE);
+		int batterySize = HeapSizes.getWidgetSize(BATTERY_FIELDS) + HeapSizes.getImageSize();
+		return ICON_LABELS * iconLabelSize + clockSize + batterySize + HeapSizes.getWidgetSize(LABEL_FIELDS);
+	}
+
+	@Override
+	protected Widget createWidget() {
 		Widget digital = createDigital();
 		digital.addClassSelector(ClassIdentifiers.DIGITAL_WATCHFACE);
 
@@ -79,7 +102,7 @@ public class WatchfacePage extends Page {
 		this.distance.addClassSelector(ClassIdentifiers.DISTANCE_VALUE);
 
 		// creates the widget for the digital clock
-		DigitalClock clock = new DigitalClock(TimeHelper.getTimer());
+		DigitalClock clock = new DigitalClock();
 
 		// creates the widget for the battery level indicator
 		this.battery = new BatteryLevel(model.getBatteryLevel());
@@ -114,7 +137,7 @@ public class WatchfacePage extends Page {
 	 * This analog watchface is composed of one widget that draws the watch hands.
 	 */
 	private Widget createAnalog() {
-		WatchHands watchHands = new WatchHands(TimeHelper.getTimer());
+		WatchHands watchHands = new WatchHands();
 		watchHands.addClassSelector(ClassIdentifiers.ANALOG_WATCHFACE);
 		return watchHands;
 	}
@@ -165,27 +188,35 @@ public class WatchfacePage extends Page {
 	 *
 	 * <p>
 	 * This method is called whenever the observed object (here <code>com.microej.exercise.ui.util.Model</code>) is
-	 * changed.
+	 * changed. Only the widgets that show a changed field are updated.
 	 */
 	@Override
-	public void update() {
-		super.update();
+	public void update(int changedFields) {
+		super.update(changedFields);
 
-		// retrieves the business model
+		// retrieves the last data published by the business model
 		Model model = Model.getInstance();
+		ModelSnapshot snapshot = model.getSnapshot();
 
 		// updates the widgets
-		this.heartRate.setText(String.valueOf(model.getHeartRate()));
-		this.heartRate.requestRender();
-
-		this.steps.setText(String.valueOf(model.getStepCount()));
-		this.steps.requestRender();
-
-		this.distance.setText(formatDistance(model.getDistance()));
-		this.distance.requestRender();
-
-		this.battery.setLevel(model.getBatteryLevel());
-		this.battery.requestRender();
+		if ((changedFields & Model.HEART_RATE) != 0) {
+			this.heartRate.setText(String.valueOf(snapshot.getHeartRate()));
+			this.heartRate.requestRender();
+		}
+
+		if ((changedFields & Model.STEP_COUNT) != 0) {
+			int stepCount = snapshot.getStepCount();
+			this.steps.setText(String.valueOf(stepCount));
+			this.steps.requestRender();
+
+			this.distance.setText(formatDistance(model.getDistance(stepCount)));
+			this.distance.requestRender();
+		}
+
+		if ((changedFields & Model.BATTERY_LEVEL) != 0) {
+			this.battery.setLevel(snapshot.getBatteryLevel());
+			this.battery.requestRender();
+		}
 	}
 
 	private static String formatDistance(float value) {
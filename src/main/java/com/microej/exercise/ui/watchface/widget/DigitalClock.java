@@ -6,9 +6,9 @@
  */
 package com.microej.exercise.ui.watchface.widget;
 
+import com.microej.exercise.ui.util.TickListener;
+import com.microej.exercise.ui.util.TickScheduler;
 import com.microej.exercise.ui.util.TimeHelper;
-import ej.bon.Timer;
-import ej.bon.TimerTask;
 import ej.bon.Util;
 import ej.microui.display.Font;
 import ej.microui.display.GraphicsContext;
@@ -22,9 +22,9 @@ import ej.mwt.util.Size;
  * A widget that represents a digital clock.
  *
  * <p>
- * The clock format is <code>hh:mmss</code>.
+ * The clock format is <code>hh:mmss</code>. The clock is updated on every second by the {@link TickScheduler}.
  */
-public class DigitalClock extends Widget {
+public class DigitalClock extends Widget implements TickListener {
 
 	/** The extra style field for defining the font to use for the seconds. */
 	public final static int EXTRA_FIELD_SECONDS_FONT = 0;
@@ -35,21 +35,21 @@ public class DigitalClock extends Widget {
 	/** The pattern for the seconds pattern (<code>ss</code>) */
 	private static final String SECONDS_PATTERN = "88"; //$NON-NLS-1$
 
-	/** The delay between two updates of the clock. */
-	private static final int UPDATE_PERIOD = 500;
+	/** The buffer that holds the characters of the hour and minute, reused at each render. */
+	private final char[] clockChars;
 
-	private TimerTask task;
+	/** The buffer that holds the characters of the seconds, reused at each render. */
+	private final char[] secondsChars;
 
-	private final Timer timer;
+	/** The time shown by the clock, in milliseconds since Epoch. */
+	private long time;
 
 	/**
 	 * Creates a widget that represents a digital clock.
-	 *
-	 * @param timer
-	 *            the timer instance to use for scheduling the internal update task.
 	 */
-	public DigitalClock(Timer timer) {
-		this.timer = timer;
+	public DigitalClock() {
+		this.clockChars = new char[TimeHelper.CLOCK_LENGTH];
+		this.secondsChars = new char[TimeHelper.SECONDS_LENGTH];
 	}
 
 	@Override
@@ -63,10 +63,13 @@ public class DigitalClock extends Widget {
 		// sets the color from the style to be the color to use for the drawings
 		g.setColor(style.getColor());
 
-		// computes the hour, minute and second from the current time in milliseconds
-		long currentTime = Util.currentTimeMillis();
-		String clockText = TimeHelper.formatClock(currentTime);
-		String secondsText = TimeHelper.formatSeconds(currentTime);
+		// formats the hour, minute and second from the time of the last tick in milliseconds into the reusable
+		// buffers, so that rendering a frame does not allocate any object
+		long currentTime = this.time;
+		char[] clockChars = this.clockChars;
+		char[] secondsChars = this.secondsChars;
+		int clockLength = TimeHelper.formatClock(currentTime, clockChars);
+		int secondsLength = TimeHelper.formatSeconds(currentTime, secondsChars);
 
 		// computes the text anchor point
 		int clockWidth = font.stringWidth(CLOCK_PATTERN);
@@ -74,13 +77,14 @@ public class DigitalClock extends Widget {
 		int x = Alignment.computeLeftX(fullWidth, 0, contentWidth, style.getHorizontalAlignment());
 		int y = Alignment.computeTopY(font.getHeight(), 0, contentHeight, style.getVerticalAlignment());
 
-		// draws the hh:mm string
-		Painter.drawString(g, clockText, font, x, y);
+		// draws the hh:mm characters
+		Painter.drawChars(g, clockChars, 0, clockLength, font, x, y);
 
 		// draws the seconds on the same baseline
 		int baseline = y + font.getBaselinePosition();
 		x += clockWidth;
-		Painter.drawString(g, secondsText, secondsFont, x, baseline - secondsFont.getBaselinePosition());
+		Painter.drawChars(g, secondsChars, 0, secondsLength, secondsFont, x,
+				baseline - secondsFont.getBaselinePosition());
 	}
 
 	@Override
@@ -101,36 +105,23 @@ public class DigitalClock extends Widget {
 	@Override
 	protected void onShown() {
 		super.onShown();
+		this.time = Util.currentTimeMillis();
 		// starts updating the clock when the widget is shown on the display
-		startUpdateTask();
+		TickScheduler.getInstance().subscribe(this, TickScheduler.SECOND);
 	}
 
 	@Override
 	protected void onHidden() {
 		super.onHidden();
 		// stops updating the clock when the widget is hidden
-		stopUpdateTask();
+		TickScheduler.getInstance().unsubscribe(this);
 	}
 
-	private void startUpdateTask() {
-		stopUpdateTask();
-		this.task = new TimerTask() {
-
-			@Override
-			public void run() {
-				// requests a new render at each execution, to update the clock content with current time
-				requestRender();
-			}
-		};
-
-		this.timer.schedule(this.task, UPDATE_PERIOD, UPDATE_PERIOD);
-	}
-
-	private void stopUpdateTask() {
-		TimerTask timerTask = this.task;
-		if (timerTask != null) {
-			timerTask.cancel();
-		}
+	@Override
+	public void onTick(long time) {
+		// requests a new render at each second, to update the clock content with the time of the tick
+		this.time = time;
+		requestRender();
 	}
 
 }
@@ -0,0 +1,44 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+import ej.microui.display.GraphicsContext;
+import ej.microui.display.Painter;
+
+/**
+ * A transition renderer that moves the content already on the display and renders only the part of the pages that
+ * becomes visible.
+ *
+ * <p>
+ * It relies on the content of the display of the previous frame, so it fits the platforms whose display buffer is kept
+ * between frames.
+ */
+public class DisplayCopyTransitionRenderer extends FullTransitionRenderer {
+
+	@Override
+	public void render(SwipeContainer container, GraphicsContext g, int shift) {
+		int contentX = container.getContentX();
+		int contentY = container.getContentY();
+		int contentWidth = container.getContentWidth();
+		int contentHeight = container.getContentHeight();
+		// "Move" the display from the previous position to the new one.
+		g.setClip(contentX, contentY, contentWidth, contentHeight);
+		Painter.drawDisplayRegion(g, contentX, contentY, contentWidth - shift, contentHeight, contentX + shift,
+				contentY);
+		// Draws only the modified part of the container and its children.
+		if (shift > 0) {
+			// The widgets are moved to the right.
+			// Draw the part of the left widget previously outside of the container.
+			g.setClip(contentX, contentY, shift, contentHeight);
+		} else {
+			// The widgets are moved to the left.
+			// Draw the part of the right widget previously outside of the container.
+			g.setClip(contentX + contentWidth + shift, contentY, -shift, contentHeight);
+		}
+		container.renderContainer(g);
+	}
+}
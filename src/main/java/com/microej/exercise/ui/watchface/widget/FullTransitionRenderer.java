@@ -0,0 +1,33 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+import ej.microui.display.GraphicsContext;
+
+/**
+ * A transition renderer that renders the moving pages entirely at each frame.
+ *
+ * <p>
+ * It uses no memory, but its cost depends on the complexity of the pages.
+ */
+public class FullTransitionRenderer implements TransitionRenderer {
+
+	@Override
+	public boolean usesSnapshots() {
+		return false;
+	}
+
+	@Override
+	public void render(SwipeContainer container, GraphicsContext g, int shift) {
+		container.renderContainer(g);
+	}
+
+	@Override
+	public void renderContent(SwipeContainer container, GraphicsContext g, int contentWidth, int contentHeight) {
+		container.renderPages(g, contentWidth, contentHeight);
+	}
+}
@@ -0,0 +1,27 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+import ej.microui.display.GraphicsContext;
+
+/**
+ * A transition renderer that moves the content already on the display, like {@link DisplayCopyTransitionRenderer},
+ * and draws the part of the pages that becomes visible from their snapshots, like
+ * {@link SnapshotTransitionRenderer}.
+ */
+public class HybridTransitionRenderer extends DisplayCopyTransitionRenderer {
+
+	@Override
+	public boolean usesSnapshots() {
+		return true;
+	}
+
+	@Override
+	public void renderContent(SwipeContainer container, GraphicsContext g, int contentWidth, int contentHeight) {
+		container.drawSnapshots(g);
+	}
+}
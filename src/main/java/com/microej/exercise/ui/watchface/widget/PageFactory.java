@@ -0,0 +1,28 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+import ej.mwt.Widget;
+
+/**
+ * Creates the widget of a page of a {@link SwipeContainer} on demand.
+ *
+ * @see SwipeContainer#addPage(PageFactory)
+ */
+public interface PageFactory {
+
+	/**
+	 * Creates the widget of the page.
+	 *
+	 * <p>
+	 * This method may be called several times during the life of the container: the widget of a page is released when
+	 * the page is far from the visible one, and created again when the page gets closer.
+	 *
+	 * @return a new widget.
+	 */
+	Widget createPage();
+}
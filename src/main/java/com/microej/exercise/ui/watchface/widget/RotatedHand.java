@@ -0,0 +1,331 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+import com.microej.exercise.ui.util.ImageCache;
+import ej.annotation.Nullable;
+import ej.drawing.TransformPainter;
+import ej.drawing.TransformPainter.Flip;
+import ej.microui.MicroUIException;
+import ej.microui.display.BufferedImage;
+import ej.microui.display.Format;
+import ej.microui.display.GraphicsContext;
+import ej.microui.display.Image;
+import ej.microui.display.Painter;
+
+/**
+ * A hand of an analog watchface, drawn at a fixed number of positions around its axle.
+ *
+ * <p>
+ * The rotated images of the hand (the sprites) are rendered once in an {@link ImageCache} and then simply drawn at the
+ * next renderings. When a sprite cannot be stored in the cache, the hand is rotated while drawing it.
+ *
+ * <p>
+ * The image of the hand must be symmetric around the vertical line of its axle. Only the sprites of the first quarter
+ * of the turn (noon to three o'clock, both included) are rendered: the positions of the other quarters are drawn by
+ * flipping them vertically, horizontally, or both (half a turn). The number of positions must be a multiple of 4.
+ */
+public class RotatedHand {
+
+	/** The format of the sprites, the hands are grayscale so 4 bits per channel are enough. */
+	private static final Format SPRITE_FORMAT = Format.ARGB4444;
+
+	/** The number of bytes per pixel of the sprites. */
+	private static final int SPRITE_BYTES_PER_PIXEL = 2;
+
+	/** The margin around the rotated image, to keep the pixels blended by the bilinear interpolation. */
+	private static final int SPRITE_MARGIN = 1;
+
+	private static final int FULL_TURN = -360;
+
+	private final Image image;
+
+	private final int axleX;
+
+	private final int axleY;
+
+	private final int positions;
+
+	private final int keyBase;
+
+	private final boolean cached;
+
+	// Bounds of the last computed rotated image, relative to the axle.
+	private int boundsX;
+	private int boundsY;
+	private int boundsWidth;
+	private int boundsHeight;
+
+	/**
+	 * Creates a hand.
+	 *
+	 * @param image
+	 *            the image of the hand, pointing up (noon).
+	 * @param axleX
+	 *            the x coordinate of the hand axle, relative to the image origin.
+	 * @param axleY
+	 *            the y coordinate of the hand axle, relative to the image origin.
+	 * @param positions
+	 *            the number of positions of the hand on a full turn, a multiple of 4.
+	 * @param keyBase
+	 *            the first key of the sprites of this hand in the cache, the keys from <code>keyBase</code> to
+	 *            <code>keyBase + positions / 4</code> must not be used by another hand.
+	 * @param cached
+	 *            whether the sprites of this hand are stored in the cache.
+	 */
+	public RotatedHand(Image image, int axleX, int axleY, int positions, int keyBase, boolean cached) {
+		this.image = image;
+		this.axleX = axleX;
+		this.axleY = axleY;
+		this.positions = positions;
+		this.keyBase = keyBase;
+		this.cached = cached;
+	}
+
+	/**
+	 * Gets the number of positions of the hand on a full turn.
+	 *
+	 * @return the number of positions.
+	 */
+	public int getPositions() {
+		return this.positions;
+	}
+
+	/**
+	 * Gets the number of sprites of the hand, the positions of the first quarter of the turn.
+	 *
+	 * @param positions
+	 *            the number of positions of the hand on a full turn, a multiple of 4.
+	 * @return the number of sprites.
+	 */
+	public static int getSpritesCount(int positions) {
+		return positions / 4 + 1;
+	}
+
+	/**
+	 * Gets the angle of the hand at the given position.
+	 *
+	 * @param position
+	 *            the position of the hand, between <code>0</code> (noon) and {@link #getPositions()} (excluded).
+	 * @return the angle, in degrees. Negative angle is clockwise rotation.
+	 */
+	public float getAngle(int position) {
+		return (float) FULL_TURN * position / this.positions;
+	}
+
+	/**
+	 * Draws the hand at the given position.
+	 *
+	 * @param g
+	 *            the graphics context to draw with.
+	 * @param cache
+	 *            the cache of the sprites.
+	 * @param position
+	 *            the position of the hand, between <code>0</code> (noon) and {@link #getPositions()} (excluded).
+	 * @param centerX
+	 *            the x coordinate of the axle in the graphics context.
+	 * @param centerY
+	 *            the y coordinate of the axle in the graphics context.
+	 */
+	public void draw(GraphicsContext g, ImageCache cache, int position, int centerX, int centerY) {
+		int spritePosition = getSpritePosition(position);
+		computeBounds(getAngle(spritePosition));
+
+		BufferedImage sprite = getSprite(cache, spritePosition);
+		Flip flip = getFlip(position);
+		flipBounds(flip);
+		if (sprite == null) {
+			// falls back on drawing the rotated image directly
+			TransformPainter.drawRotatedImageBilinear(g, this.image, centerX - this.axleX, centerY - this.axleY,
+					centerX, centerY, getAngle(position));
+		} else if (flip == Flip.FLIP_NONE) {
+			Painter.drawImage(g, sprite, centerX + this.boundsX, centerY + this.boundsY);
+		} else {
+			TransformPainter.drawFlippedImage(g, sprite, centerX + this.boundsX, centerY + this.boundsY, flip);
+		}
+	}
+
+	/**
+	 * Closes the sprite used to draw the hand at the given position, for example when the hand leaves a position it
+	 * will not come back to before long.
+	 *
+	 * @param cache
+	 *            the cache of the sprites.
+	 * @param position
+	 *            the position of the hand, between <code>0</code> (noon) and {@link #getPositions()} (excluded).
+	 */
+	public void release(ImageCache cache, int position) {
+		cache.remove(this.keyBase + getSpritePosition(position));
+	}
+
+	/**
+	 * Computes the bounds of the hand at the given position.
+	 *
+	 * <p>
+	 * The bounds can then be retrieved with {@link #getBoundsX()}, {@link #getBoundsY()}, {@link #getBoundsWidth()}
+	 * and {@link #getBoundsHeight()}.
+	 *
+	 * @param position
+	 *            the position of the hand, between <code>0</code> (noon) and {@link #getPositions()} (excluded).
+	 */
+	public void computeBounds(int position) {
+		computeBounds(getAngle(getSpritePosition(position)));
+		flipBounds(getFlip(position));
+	}
+
+	/**
+	 * Gets the x coordinate of the last computed bounds, relative to the axle.
+	 *
+	 * @return the x coordinate of the bounds.
+	 */
+	public int getBoundsX() {
+		return this.boundsX;
+	}
+
+	/**
+	 * Gets the y coordinate of the last computed bounds, relative to the axle.
+	 *
+	 * @return the y coordinate of the bounds.
+	 */
+	public int getBoundsY() {
+		return this.boundsY;
+	}
+
+	/**
+	 * Gets the width of the last computed bounds.
+	 *
+	 * @return the width of the bounds.
+	 */
+	public int getBoundsWidth() {
+		return this.boundsWidth;
+	}
+
+	/**
+	 * Gets the height of the last computed bounds.
+	 *
+	 * @return the height of the bounds.
+	 */
+	public int getBoundsHeight() {
+		return this.boundsHeight;
+	}
+
+	/**
+	 * Gets the position of the first quarter of the turn whose sprite is flipped to draw the given position.
+	 */
+	private int getSpritePosition(int position) {
+		int quarter = this.positions / 4;
+		int half = quarter * 2;
+		if (position <= quarter) {
+			return position;
+		} else if (position < half) {
+			return half - position;
+		} else if (position <= half + quarter) {
+			return position - half;
+		} else {
+			return this.positions - position;
+		}
+	}
+
+	/**
+	 * Gets the flip to apply to the sprite of {@link #getSpritePosition(int)} to draw the given position.
+	 */
+	private Flip getFlip(int position) {
+		int quarter = this.positions / 4;
+		int half = quarter * 2;
+		if (position <= quarter) {
+			return Flip.FLIP_NONE;
+		} else if (position < half) {
+			// mirrored then rotated by half a turn: flipped vertically
+			return Flip.FLIP_MIRROR_180;
+		} else if (position <= half + quarter) {
+			return Flip.FLIP_180;
+		} else {
+			return Flip.FLIP_MIRROR;
+		}
+	}
+
+	/**
+	 * Flips the last computed bounds around the axle, the pixel of the axle stays in place.
+	 */
+	private void flipBounds(Flip flip) {
+		if (flip == Flip.FLIP_MIRROR || flip == Flip.FLIP_180) {
+			this.boundsX = 1 - this.boundsX - this.boundsWidth;
+		}
+		if (flip == Flip.FLIP_MIRROR_180 || flip == Flip.FLIP_180) {
+			this.boundsY = 1 - this.boundsY - this.boundsHeight;
+		}
+	}
+
+	@Nullable
+	private BufferedImage getSprite(ImageCache cache, int spritePosition) {
+		if (!this.cached) {
+			return null;
+		}
+
+		int key = this.keyBase + spritePosition;
+		BufferedImage sprite = cache.get(key);
+		if (sprite == null) {
+			int width = this.boundsWidth;
+			int height = this.boundsHeight;
+			int size = width * height * SPRITE_BYTES_PER_PIXEL;
+			if (!cache.reserve(size)) {
+				return null;
+			}
+			try {
+				// a new ARGB image is fully transparent: only the hand pixels are drawn into it
+				sprite = new BufferedImage(width, height, SPRITE_FORMAT);
+			} catch (MicroUIException e) {
+				// not enough room in the images heap (or format not supported): the hand is rotated at each drawing
+				return null;
+			}
+			GraphicsContext spriteGraphicsContext = sprite.getGraphicsContext();
+			int rx = -this.boundsX;
+			int ry = -this.boundsY;
+			TransformPainter.drawRotatedImageBilinear(spriteGraphicsContext, this.image, rx - this.axleX,
+					ry - this.axleY, rx, ry, getAngle(spritePosition));
+			cache.put(key, sprite, size);
+		}
+		return sprite;
+	}
+
+	/**
+	 * Computes the bounds of the image rotated around its axle.
+	 *
+	 * @param angle
+	 *            the rotation angle, in degrees. Negative angle is clockwise rotation.
+	 */
+	private void computeBounds(float angle) {
+		double radians = Math.toRadians(angle);
+		float cos = (float) Math.cos(radians);
+		float sin = (float) Math.sin(radians);
+
+		int left = -this.axleX;
+		int top = -this.axleY;
+		int right = left + this.image.getWidth();
+		int bottom = top + this.image.getHeight();
+
+		// rotates the 4 corners of the image around the axle (y-axis pointing down)
+		float x1 = left * cos + top * sin;
+		float x2 = right * cos + top * sin;
+		float x3 = left * cos + bottom * sin;
+		float x4 = right * cos + bottom * sin;
+		float y1 = -left * sin + top * cos;
+		float y2 = -right * sin + top * cos;
+		float y3 = -left * sin + bottom * cos;
+		float y4 = -right * sin + bottom * cos;
+
+		int minX = (int) Math.floor(Math.min(Math.min(x1, x2), Math.min(x3, x4))) - SPRITE_MARGIN;
+		int maxX = (int) Math.ceil(Math.max(Math.max(x1, x2), Math.max(x3, x4))) + SPRITE_MARGIN;
+		int minY = (int) Math.floor(Math.min(Math.min(y1, y2), Math.min(y3, y4))) - SPRITE_MARGIN;
+		int maxY = (int) Math.ceil(Math.max(Math.max(y1, y2), Math.max(y3, y4))) + SPRITE_MARGIN;
+
+		this.boundsX = minX;
+		this.boundsY = minY;
+		this.boundsWidth = maxX - minX;
+		this.boundsHeight = maxY - minY;
+	}
+}
@@ -0,0 +1,28 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+import ej.microui.display.GraphicsContext;
+
+/**
+ * A transition renderer that draws the snapshots of the moving pages, taken before the transition.
+ *
+ * <p>
+ * Each frame costs two image copies whatever the complexity of the pages, but the snapshots use the images heap.
+ */
+public class SnapshotTransitionRenderer extends FullTransitionRenderer {
+
+	@Override
+	public boolean usesSnapshots() {
+		return true;
+	}
+
+	@Override
+	public void renderContent(SwipeContainer container, GraphicsContext g, int contentWidth, int contentHeight) {
+		container.drawSnapshots(g);
+	}
+}
@@ -6,12 +6,20 @@
  */
 package com.microej.exercise.ui.watchface.widget;
 
+import com.microej.exercise.ui.Main;
+import com.microej.exercise.ui.util.CoalescingPointerEventDispatcher;
+import com.microej.exercise.ui.util.ListenableRenderPolicy;
+import com.microej.exercise.ui.util.RenderRequestListener;
+import com.microej.exercise.ui.util.SnapshotPool;
+import com.microej.exercise.ui.util.TimeHelper;
+import com.microej.exercise.ui.util.VelocityTracker;
 import ej.annotation.Nullable;
-import ej.basictool.ArrayTools;
 import ej.bon.Constants;
+import ej.bon.TimerTask;
 import ej.bon.Util;
 import ej.microui.MicroUI;
 import ej.microui.display.BufferedImage;
+import ej.microui.display.Display;
 import ej.microui.display.GraphicsContext;
 import ej.microui.display.Painter;
 import ej.microui.event.Event;
@@ -33,14 +41,35 @@ import ej.widget.motion.MotionAnimationListener;
  * Each widget is the size of the content of the container.
  * <p>
  * Only one widget is visible at a time. It is possible to change the visible widget by swiping left or right.
+ * <p>
+ * The pages can be added as widgets, which are kept for the life of the container, or as factories (see
+ * {@link #addPage(PageFactory)}), whose widgets exist only while they are visible or next to the visible page.
  */
 public class SwipeContainer extends Container {
 
 	private static final int SCREEN_RATIO = 6;
 	private static final float SPEED_THRESHOLD = 0.1f;
 	private static final int TRANSITION_DURATION = 200;
+	private static final int MIN_TRANSITION_DURATION = 50;
+	private static final int VELOCITY_SAMPLES = 8;
+	private static final int VELOCITY_WINDOW = 100;
 	private static final String SCREENSHOTS = "com.microej.exercise.ui.swipecontainer.screenshots"; //$NON-NLS-1$
 	private static final String COPY_DISPLAY = "com.microej.exercise.ui.swipecontainer.copydisplay"; //$NON-NLS-1$
+	private static final String CALIBRATION = "com.microej.exercise.ui.swipecontainer.calibration"; //$NON-NLS-1$
+	private static final String SNAPSHOTS_BUDGET = "com.microej.exercise.ui.swipecontainer.snapshots.budget"; //$NON-NLS-1$
+	private static final int BITS_PER_BYTE = 8;
+
+	/**
+	 * The number of snapshots used during a transition: the current page and the other page.
+	 *
+	 * <p>
+	 * Between two transitions, the slot of the other page holds the neighbour rendered in advance. The images heap does
+	 * not hold a third full page, so only the neighbour in the direction of the last move is rendered in advance.
+	 */
+	private static final int SNAPSHOTS_COUNT = 2;
+
+	/** The delay after a transition before rendering the neighbour page in advance, in milliseconds. */
+	private static final int PRERENDER_DELAY = 300;
 
 	// Children indices.
 	private static final int CURRENT = 0;
@@ -49,16 +78,16 @@ public class SwipeContainer extends Container {
 	@Nullable
 	private MotionAnimation motionAnimation;
 
-	// Pages management.
+	// Pages management (the widget of a page created by a factory is null while it is released).
 	private Widget[] pages;
+	private PageFactory[] factories;
 	private int currentPageIndex;
 	private int otherPageIndex;
 	private int targetPageIndex;
 
 	// Drag management.
 	private boolean pressed;
-	private int pressedX;
-	private long pressedTime;
+	private final VelocityTracker velocityTracker;
 	private boolean moving;
 	private int previousX;
 	private int previousY;
@@ -66,37 +95,355 @@ public class SwipeContainer extends Container {
 	// Rendering management.
 	private int previousPosition;
 	private int position;
+	private TransitionRenderer transitionRenderer;
+	@Nullable
+	private TransitionCalibration calibration;
+	private boolean calibrated;
 
 	// Transition snapshots.
+	private final SnapshotPool snapshotPool;
 	@Nullable
 	private BufferedImage currentSnapshot;
 	@Nullable
 	private BufferedImage otherSnapshot;
 
+	// Neighbour page rendered in advance (the index is -1 when there is no snapshot). While its snapshot is up to date,
+	// the page stays shown out of the content bounds and its first render request marks the snapshot stale: the page
+	// is then hidden, so that its animations stop, and its snapshot is rendered again only when a drag needs it.
+	@Nullable
+	private Widget neighbour;
+	private int prerenderedIndex;
+	@Nullable
+	private BufferedImage prerenderedSnapshot;
+	private volatile boolean prerenderedStale;
+	private final ListenableRenderPolicy renderPolicy;
+	private final Runnable prerenderer;
+	private final Runnable neighbourHider;
+	private final RenderRequestListener renderRequestListener;
+	@Nullable
+	private TimerTask prerenderTask;
+	private boolean lastMoveToPrevious;
+
 	/**
 	 * Creates a slide container.
+	 *
+	 * @param renderPolicy
+	 *            the render policy of the desktop, notifying the render requests of the neighbour page rendered in
+	 *            advance.
 	 */
-	public SwipeContainer() {
+	public SwipeContainer(ListenableRenderPolicy renderPolicy) {
 		super(true);
+		this.renderPolicy = renderPolicy;
 		this.currentPageIndex = -1;
 		this.pages = new Widget[0];
+		this.factories = new PageFactory[0];
+		this.velocityTracker = new VelocityTracker(VELOCITY_SAMPLES, VELOCITY_WINDOW);
+		this.snapshotPool = new SnapshotPool(SNAPSHOTS_COUNT);
+		this.transitionRenderer = createDefaultRenderer();
+		this.prerenderedIndex = -1;
+		this.prerenderer = new Runnable() {
+			@Override
+			public void run() {
+				prerenderNeighbour();
+			}
+		};
+		this.neighbourHider = new Runnable() {
+			@Override
+			public void run() {
+				if (SwipeContainer.this.prerenderedStale) {
+					hideNeighbour();
+				}
+			}
+		};
+		this.renderRequestListener = new RenderRequestListener() {
+			@Override
+			public void onRenderRequested(Widget widget) {
+				// listened only while the snapshot of the neighbour is up to date
+				Widget neighbour = SwipeContainer.this.neighbour;
+				if (neighbour != null && !SwipeContainer.this.prerenderedStale && isInPage(widget, neighbour)) {
+					SwipeContainer.this.prerenderedStale = true;
+					MicroUI.callSerially(SwipeContainer.this.neighbourHider);
+				}
+			}
+		};
 	}
 
 	/**
 	 * Adds a page.
 	 *
+	 * <p>
+	 * The widget of the page is kept for the life of the container. The first page added is the visible page.
+	 *
 	 * @param widget
-	 *            the widget to add.
+	 *            the widget of the page.
 	 */
 	@Override
 	public void addChild(Widget widget) {
-		this.pages = ArrayTools.add(this.pages, widget);
+		addPage(widget, null);
+	}
+
+	/**
+	 * Adds a page created on demand.
+	 *
+	 * <p>
+	 * The widget of the page is created when the page becomes visible or next to the visible page, and released once
+	 * the page is more than one swipe away from the visible page.
+	 *
+	 * @param factory
+	 *            the factory of the page.
+	 */
+	public void addPage(PageFactory factory) {
+		addPage(null, factory);
+	}
+
+	/**
+	 * Appends a page, given by its widget or by its factory, and shows it if it is the first page.
+	 */
+	private void addPage(@Nullable Widget widget, @Nullable PageFactory factory) {
+		int pagesCount = this.pages.length;
+		Widget[] pages = new Widget[pagesCount + 1];
+		PageFactory[] factories = new PageFactory[pagesCount + 1];
+		System.arraycopy(this.pages, 0, pages, 0, pagesCount);
+		System.arraycopy(this.factories, 0, factories, 0, pagesCount);
+		pages[pagesCount] = widget;
+		factories[pagesCount] = factory;
+		this.pages = pages;
+		this.factories = factories;
+
 		if (this.currentPageIndex == -1) {
-			super.addChild(widget);
-			this.currentPageIndex = 0;
+			super.addChild(getPage(pagesCount));
+			this.currentPageIndex = pagesCount;
+		}
+	}
+
+	/**
+	 * Gets the widget of a page, creating it if needed.
+	 */
+	private Widget getPage(int index) {
+		Widget page = this.pages[index];
+		if (page == null) {
+			page = this.factories[index].createPage();
+			this.pages[index] = page;
+		}
+		return page;
+	}
+
+	/**
+	 * Releases the widgets of the pages created by a factory that are more than one swipe away from the current page.
+	 *
+	 * <p>
+	 * These pages are not in the widget hierarchy, so their widgets and the resources they hold can be collected.
+	 */
+	private void releaseFarPages() {
+		Widget[] pages = this.pages;
+		PageFactory[] factories = this.factories;
+		int pagesCount = pages.length;
+		int currentIndex = this.currentPageIndex;
+		for (int i = 0; i < pagesCount; i++) {
+			if (factories[i] != null && pages[i] != null) {
+				int distance = Math.abs(i - currentIndex);
+				distance = Math.min(distance, pagesCount - distance);
+				if (distance > 1) {
+					if (i == this.prerenderedIndex) {
+						releasePrerenderedSnapshot();
+					}
+					pages[i] = null;
+				}
+			}
 		}
 	}
 
+	/**
+	 * Gets the renderer used during the transitions.
+	 *
+	 * @return the transition renderer.
+	 */
+	public TransitionRenderer getTransitionRenderer() {
+		return this.transitionRenderer;
+	}
+
+	/**
+	 * Sets the renderer to use during the transitions.
+	 *
+	 * <p>
+	 * By default, the renderer is chosen with the <code>com.microej.exercise.ui.swipecontainer.screenshots</code> and
+	 * <code>com.microej.exercise.ui.swipecontainer.copydisplay</code> constants. When the
+	 * <code>com.microej.exercise.ui.swipecontainer.calibration</code> constant is set, the first transitions are used
+	 * to measure the renderers, then the fastest one is set.
+	 *
+	 * <p>
+	 * The renderer is changed only between two transitions: this method must be called in the MicroUI thread while no
+	 * transition is running.
+	 *
+	 * @param renderer
+	 *            the transition renderer.
+	 */
+	public void setTransitionRenderer(TransitionRenderer renderer) {
+		this.transitionRenderer = renderer;
+		if (renderer.usesSnapshots()) {
+			schedulePrerender();
+		} else {
+			// the snapshots are not needed anymore, frees the images heap
+			cancelPrerender();
+			releasePrerenderedSnapshot();
+			detachNeighbour();
+			this.snapshotPool.clear();
+		}
+	}
+
+	/**
+	 * Renders the container and its pages as if no transition was running.
+	 *
+	 * <p>
+	 * This method is meant to be called by the {@link TransitionRenderer} implementations.
+	 *
+	 * @param g
+	 *            the graphics context to draw with.
+	 */
+	public void renderContainer(GraphicsContext g) {
+		super.render(g);
+	}
+
+	/**
+	 * Renders the pages at their current position.
+	 *
+	 * <p>
+	 * This method is meant to be called by the {@link TransitionRenderer} implementations.
+	 *
+	 * @param g
+	 *            the graphics context to draw with, translated to the content of the container.
+	 * @param contentWidth
+	 *            the width of the content of the container.
+	 * @param contentHeight
+	 *            the height of the content of the container.
+	 */
+	public void renderPages(GraphicsContext g, int contentWidth, int contentHeight) {
+		super.renderContent(g, contentWidth, contentHeight);
+	}
+
+	/**
+	 * Draws the snapshots of the pages at their current position.
+	 *
+	 * <p>
+	 * This method is meant to be called by the {@link TransitionRenderer} implementations that use snapshots.
+	 *
+	 * @param g
+	 *            the graphics context to draw with, translated to the content of the container.
+	 */
+	public void drawSnapshots(GraphicsContext g) {
+		BufferedImage current = this.currentSnapshot;
+		if (current != null) {
+			Widget currentChild = getChild(CURRENT);
+			Painter.drawImage(g, current, currentChild.getX(), currentChild.getY());
+		}
+		BufferedImage other = this.otherSnapshot;
+		if (other != null) {
+			Widget otherChild = getChild(OTHER);
+			Painter.drawImage(g, other, otherChild.getX(), otherChild.getY());
+		}
+	}
+
+	private static TransitionRenderer createDefaultRenderer() {
+		boolean screenshots = Constants.getBoolean(SCREENSHOTS);
+		boolean copyDisplay = Constants.getBoolean(COPY_DISPLAY);
+		if (screenshots && copyDisplay) {
+			return new HybridTransitionRenderer();
+		} else if (screenshots) {
+			return new SnapshotTransitionRenderer();
+		} else if (copyDisplay) {
+			return new DisplayCopyTransitionRenderer();
+		} else {
+			return new FullTransitionRenderer();
+		}
+	}
+
+	/**
+	 * Creates the renderers to measure: the ones that use snapshots are measured only if the snapshots fit in the
+	 * images heap budget.
+	 */
+	private TransitionRenderer[] createCalibrationCandidates() {
+		int snapshotSize = getContentWidth() * getContentHeight() * Display.getDisplay().getPixelDepth()
+				/ BITS_PER_BYTE;
+		if (SNAPSHOTS_COUNT * snapshotSize <= Constants.getInt(SNAPSHOTS_BUDGET)) {
+			return new TransitionRenderer[] { new FullTransitionRenderer(), new DisplayCopyTransitionRenderer(),
+					new SnapshotTransitionRenderer(), new HybridTransitionRenderer() };
+		} else {
+			return new TransitionRenderer[] { new FullTransitionRenderer(), new DisplayCopyTransitionRenderer() };
+		}
+	}
+
+	/**
+	 * Selects the renderer of the next transition while calibrating.
+	 */
+	private void updateCalibration() {
+		TransitionCalibration calibration = this.calibration;
+		if (calibration == null) {
+			if (this.calibrated || !Constants.getBoolean(CALIBRATION)) {
+				return;
+			}
+			calibration = new TransitionCalibration(createCalibrationCandidates());
+			this.calibration = calibration;
+		}
+		TransitionRenderer renderer = calibration.getRenderer();
+		if (renderer != this.transitionRenderer) {
+			// the candidates alternate at each transition: the snapshots are kept until the calibration is done rather
+			// than freed and allocated again in the images heap
+			this.transitionRenderer = renderer;
+			if (renderer.usesSnapshots()) {
+				schedulePrerender();
+			}
+		}
+	}
+
+	private void endCalibrationTransition() {
+		TransitionCalibration calibration = this.calibration;
+		if (calibration != null) {
+			calibration.onTransitionEnd();
+			if (calibration.isDone()) {
+				this.calibration = null;
+				this.calibrated = true;
+				setTransitionRenderer(calibration.getFastest());
+			}
+		}
+	}
+
+	private static boolean isInPage(Widget widget, Widget page) {
+		@Nullable
+		Widget ancestor = widget;
+		while (ancestor != null) {
+			if (ancestor == page) {
+				return true;
+			}
+			ancestor = ancestor.getParent();
+		}
+		return false;
+	}
+
+	@Override
+	protected void onShown() {
+		super.onShown();
+		schedulePrerender();
+	}
+
+	@Override
+	protected void onHidden() {
+		super.onHidden();
+		cancelPrerender();
+	}
+
+	@Override
+	protected void onDetached() {
+		super.onDetached();
+		this.renderPolicy.removeRenderRequestListener(this.renderRequestListener);
+		// the snapshots are not used until the container is attached again, frees the images heap
+		cancelPrerender();
+		this.prerenderedIndex = -1;
+		this.prerenderedSnapshot = null;
+		this.currentSnapshot = null;
+		this.otherSnapshot = null;
+		this.snapshotPool.clear();
+	}
+
 	@Override
 	protected void computeContentOptimalSize(Size size) {
 		int widthHint = size.getWidth();
@@ -123,16 +470,22 @@ public class SwipeContainer extends Container {
 			Widget pageChild = getChild(CURRENT);
 			layOutChild(pageChild, 0, 0, contentWidth, contentHeight);
 		}
+		Widget neighbour = this.neighbour;
+		if (neighbour != null) {
+			// the neighbour stays next to the current page, its snapshot may not match its new layout
+			computeChildOptimalSize(neighbour, contentWidth, contentHeight);
+			layOutChild(neighbour, contentWidth, 0, contentWidth, contentHeight);
+			this.prerenderedStale = true;
+			hideNeighbour();
+		}
 	}
 
 	private void doAnimation(final Widget currentChild, final Widget otherChild, int startX, int endX,
-			final int finalIndex, final boolean removeOther) {
+			final int finalIndex, final boolean removeOther, float velocity) {
 		// Save initial position for rendering.
 		this.position = startX;
 		final int shift = otherChild.getX() - currentChild.getX();
-		// Compute duration depending on the distance to walk.
-		final int contentWidth = getContentWidth();
-		long duration = TRANSITION_DURATION * Math.abs(endX - startX) / contentWidth;
+		long duration = computeTransitionDuration(endX - startX, velocity);
 		Motion motion = new Motion(QuadEaseOutFunction.INSTANCE, startX, endX, duration);
 		this.targetPageIndex = finalIndex;
 		this.motionAnimation = new MotionAnimation(getDesktop().getAnimator(), motion, new MotionAnimationListener() {
@@ -150,6 +503,23 @@ public class SwipeContainer extends Container {
 		this.motionAnimation.start();
 	}
 
+	/**
+	 * Computes the duration of the transition to walk the given distance.
+	 *
+	 * <p>
+	 * By default, the duration depends on the distance to walk. When the pages are flung toward the target, the
+	 * transition starts at the velocity of the pointer: the quadratic ease-out walks the distance in
+	 * <code>2 * distance / velocity</code>. So a quick flick finishes in fewer frames.
+	 */
+	private long computeTransitionDuration(int distance, float velocity) {
+		long duration = TRANSITION_DURATION * Math.abs(distance) / getContentWidth();
+		if (distance != 0 && distance * velocity > 0) {
+			long flingDuration = (long) (2 * distance / velocity);
+			duration = Math.min(duration, Math.max(flingDuration, MIN_TRANSITION_DURATION));
+		}
+		return duration;
+	}
+
 	private void interruptAnimation() {
 		MotionAnimation animation = this.motionAnimation;
 		if (animation != null) {
@@ -169,16 +539,9 @@ public class SwipeContainer extends Container {
 			Widget currentChild = getChild(CURRENT);
 			Widget otherChild = getChild(OTHER);
 
-			if (Constants.getBoolean(SCREENSHOTS)) {
-				if (this.otherSnapshot != null) {
-					this.otherSnapshot.close();
-					this.otherSnapshot = null;
-				}
-				if (this.currentSnapshot != null) {
-					this.currentSnapshot.close();
-					this.currentSnapshot = null;
-				}
-			}
+			releaseOtherSnapshot();
+			releaseCurrentSnapshot();
+			endCalibrationTransition();
 
 			// Restart any animation/refresh on the newly visible child.
 			Widget newlyVisibleChild;
@@ -192,38 +555,149 @@ public class SwipeContainer extends Container {
 			newlyVisibleChild.setPosition(0, 0);
 			setShownChild(newlyVisibleChild);
 			requestRender();
+
+			// the pages that are now too far to be reached by a single swipe are released
+			releaseFarPages();
+
+			// the transition is over, the neighbour of the new page can be rendered in advance
+			schedulePrerender();
+		}
+	}
+
+	private void schedulePrerender() {
+		if (!this.transitionRenderer.usesSnapshots() || this.pages.length < 2) {
+			return;
+		}
+		cancelPrerender();
+		TimerTask task = new TimerTask() {
+			@Override
+			public void run() {
+				// renders in the MicroUI thread, once the pending events and renders are done
+				MicroUI.callSerially(SwipeContainer.this.prerenderer);
+			}
+		};
+		TimeHelper.getTimer().schedule(task, PRERENDER_DELAY);
+		this.prerenderTask = task;
+	}
+
+	private void cancelPrerender() {
+		TimerTask task = this.prerenderTask;
+		if (task != null) {
+			task.cancel();
+			this.prerenderTask = null;
+		}
+	}
+
+	/**
+	 * Lays out and takes the snapshot of the neighbour page in the direction of the last move, the most likely to be
+	 * shown next.
+	 */
+	private void prerenderNeighbour() {
+		this.prerenderTask = null;
+		if (!isShown() || this.pressed || this.moving) {
+			// not idle, the neighbour will be rendered after the current transition
+			return;
+		}
+
+		int pagesCount = this.pages.length;
+		int currentIndex = this.currentPageIndex;
+		if (this.lastMoveToPrevious) {
+			prerenderPage((currentIndex + pagesCount - 1) % pagesCount);
+		} else {
+			prerenderPage((currentIndex + 1) % pagesCount);
+		}
+	}
+
+	private void prerenderPage(int pageIndex) {
+		if (this.prerenderedIndex == pageIndex && !this.prerenderedStale) {
+			// already up to date
+			return;
+		}
+		releasePrerenderedSnapshot();
+
+		// keeps the page shown out of the content bounds until its first render request
+		Widget page = getPage(pageIndex);
+		if (this.neighbour != page) {
+			detachNeighbour();
+			super.addChild(page);
+			this.neighbour = page;
+		}
+		int contentWidth = getContentWidth();
+		int contentHeight = getContentHeight();
+		computeChildOptimalSize(page, contentWidth, contentHeight);
+		layOutChild(page, contentWidth, 0, contentWidth, contentHeight);
+		if (!page.isShown()) {
+			setShownChild(page);
+		}
+
+		this.prerenderedSnapshot = createSnapshot(page);
+		this.prerenderedIndex = pageIndex;
+		this.prerenderedStale = false;
+		ListenableRenderPolicy renderPolicy = this.renderPolicy;
+		renderPolicy.removeRenderRequestListener(this.renderRequestListener);
+		renderPolicy.addRenderRequestListener(this.renderRequestListener);
+	}
+
+	/**
+	 * Hides the neighbour page and stops listening to its render requests, its snapshot is kept.
+	 */
+	private void hideNeighbour() {
+		this.renderPolicy.removeRenderRequestListener(this.renderRequestListener);
+		Widget neighbour = this.neighbour;
+		if (neighbour != null && neighbour.isShown()) {
+			setHiddenChild(neighbour);
+		}
+	}
+
+	/**
+	 * Removes the neighbour page from the children, its snapshot is kept.
+	 */
+	private void detachNeighbour() {
+		hideNeighbour();
+		Widget neighbour = this.neighbour;
+		if (neighbour != null) {
+			this.neighbour = null;
+			removeChild(neighbour);
+		}
+	}
+
+	/**
+	 * Takes the snapshot of the given page rendered in advance, if it is up to date.
+	 */
+	@Nullable
+	private BufferedImage takePrerenderedSnapshot(int pageIndex) {
+		if (this.prerenderedIndex == pageIndex && !this.prerenderedStale) {
+			BufferedImage snapshot = this.prerenderedSnapshot;
+			this.prerenderedIndex = -1;
+			this.prerenderedSnapshot = null;
+			return snapshot;
+		}
+		return null;
+	}
+
+	private void releasePrerenderedSnapshot() {
+		BufferedImage snapshot = this.prerenderedSnapshot;
+		this.prerenderedIndex = -1;
+		if (snapshot != null) {
+			this.prerenderedSnapshot = null;
+			this.snapshotPool.release(snapshot);
 		}
 	}
 
 	@Override
 	public void render(GraphicsContext g) {
-		if (Constants.getBoolean(COPY_DISPLAY)) {
-			if (this.moving) {
-				// The widget on top is moving.
-				int contentX = getContentX();
-				int contentY = getContentY();
-				int contentWidth = getContentWidth();
-				int contentHeight = getContentHeight();
-				// "Move" the display from the previous position to the new one.
-				int shift = this.position - this.previousPosition;
-				g.setClip(contentX, contentY, contentWidth, contentHeight);
-				Painter.drawDisplayRegion(g, contentX, contentY, contentWidth - shift, contentHeight, contentX + shift,
-						contentY);
-				// Draws only the modified part of the container and its children.
-				if (shift > 0) {
-					// The widgets are moved to the right.
-					// Draw the part of the left widget previously outside of the container.
-					g.setClip(contentX, contentY, shift, contentHeight);
-				} else {
-					// The widgets are moved to the left.
-					// Draw the part of the right widget previously outside of the container.
-					g.setClip(contentX + contentWidth + shift, contentY, -shift, contentHeight);
-				}
-				super.render(g);
-				this.previousPosition = this.position;
+		if (this.moving) {
+			// The pages are moving, the transition renderer draws the frame.
+			int shift = this.position - this.previousPosition;
+			TransitionCalibration calibration = this.calibration;
+			if (calibration != null) {
+				long start = Util.platformTimeNanos();
+				this.transitionRenderer.render(this, g, shift);
+				calibration.addFrame(Util.platformTimeNanos() - start);
 			} else {
-				super.render(g);
+				this.transitionRenderer.render(this, g, shift);
 			}
+			this.previousPosition = this.position;
 		} else {
 			super.render(g);
 		}
@@ -231,21 +705,8 @@ public class SwipeContainer extends Container {
 
 	@Override
 	protected void renderContent(GraphicsContext g, int contentWidth, int contentHeight) {
-		if (Constants.getBoolean(SCREENSHOTS)) {
-			if (this.moving) {
-				BufferedImage current = this.currentSnapshot;
-				if (current != null) {
-					Widget currentChild = getChild(CURRENT);
-					Painter.drawImage(g, current, currentChild.getX(), currentChild.getY());
-				}
-				BufferedImage other = this.otherSnapshot;
-				if (other != null) {
-					Widget otherChild = getChild(OTHER);
-					Painter.drawImage(g, other, otherChild.getX(), otherChild.getY());
-				}
-			} else {
-				super.renderContent(g, contentWidth, contentHeight);
-			}
+		if (this.moving) {
+			this.transitionRenderer.renderContent(this, g, contentWidth, contentHeight);
 		} else {
 			super.renderContent(g, contentWidth, contentHeight);
 		}
@@ -290,9 +751,11 @@ public class SwipeContainer extends Container {
 			this.pressed = false;
 		} else {
 			interruptAnimation();
+			cancelPrerender();
+			updateCalibration();
 			this.pressed = true;
-			this.pressedX = pointerX;
-			this.pressedTime = Util.platformTimeMillis();
+			this.velocityTracker.reset();
+			this.velocityTracker.addSample(pointerX, Util.platformTimeMillis());
 			this.previousX = pointerX;
 			this.previousY = pointerY;
 			Widget currentChild = getChild(CURRENT);
@@ -302,7 +765,15 @@ public class SwipeContainer extends Container {
 
 	@Nullable
 	private BufferedImage getSnapshot(Widget child) {
-		if (Constants.getBoolean(SCREENSHOTS)) {
+		if (this.transitionRenderer.usesSnapshots()) {
+			TransitionCalibration calibration = this.calibration;
+			if (calibration != null) {
+				// the snapshots taken during the gesture are part of the cost of the renderer
+				long start = Util.platformTimeNanos();
+				BufferedImage snapshot = createSnapshot(child);
+				calibration.addPreparation(Util.platformTimeNanos() - start);
+				return snapshot;
+			}
 			return createSnapshot(child);
 		} else {
 			return null;
@@ -313,7 +784,8 @@ public class SwipeContainer extends Container {
 		int contentWidth = getContentWidth();
 		int contentHeight = getContentHeight();
 
-		BufferedImage image = new BufferedImage(contentWidth, contentHeight);
+		// reuses a buffer of the pool, the snapshot overwrites its previous content
+		BufferedImage image = this.snapshotPool.acquire(contentWidth, contentHeight);
 		GraphicsContext g = image.getGraphicsContext();
 		g.reset();
 
@@ -326,8 +798,27 @@ public class SwipeContainer extends Container {
 		return image;
 	}
 
+	private void releaseCurrentSnapshot() {
+		BufferedImage snapshot = this.currentSnapshot;
+		if (snapshot != null) {
+			this.snapshotPool.release(snapshot);
+			this.currentSnapshot = null;
+		}
+	}
+
+	private void releaseOtherSnapshot() {
+		BufferedImage snapshot = this.otherSnapshot;
+		if (snapshot != null) {
+			this.snapshotPool.release(snapshot);
+			this.otherSnapshot = null;
+		}
+	}
+
 	private boolean onPointerDragged(int contentWidth, int pagesCount, int pointerX, int pointerY) {
 		int shiftX = pointerX - this.previousX;
+		if (this.pressed) {
+			addDragSamples(pointerX);
+		}
 		if (this.pressed && shiftX != 0) {
 			int shiftY = pointerY - this.previousY;
 			Widget currentChild = getChild(CURRENT);
@@ -342,14 +833,9 @@ public class SwipeContainer extends Container {
 			int childX = previousChildX + shiftX;
 			if (previousChildX > 0 && childX < 0 || previousChildX < 0 && childX > 0) {
 				// Change way.
-				this.pressedX = pointerX;
-				this.pressedTime = Util.platformTimeMillis();
 				Widget otherChild = getChild(OTHER);
 				removeChild(otherChild);
-				if (this.otherSnapshot != null) {
-					this.otherSnapshot.close();
-					this.otherSnapshot = null;
-				}
+				releaseOtherSnapshot();
 				loadOtherChild(contentWidth, pagesCount, shiftX);
 				otherChild = getChild(OTHER);
 				otherChild.setPosition(otherChild.getX() + previousChildX, 0);
@@ -369,6 +855,27 @@ public class SwipeContainer extends Container {
 		return false;
 	}
 
+	/**
+	 * Adds the positions of the pointer since the previous drag event to the velocity tracker.
+	 *
+	 * <p>
+	 * The drag events are coalesced by the event dispatcher: the handled event holds the samples of the events it
+	 * replaced, timed when they were received. The velocity is fitted on all of them rather than on the handled events
+	 * only, which are sparse and timed when they are handled.
+	 */
+	private void addDragSamples(int pointerX) {
+		VelocityTracker velocityTracker = this.velocityTracker;
+		CoalescingPointerEventDispatcher dispatcher = Main.getEventDispatcher();
+		int samplesCount = dispatcher.getDragSampleCount();
+		if (samplesCount == 0) {
+			// the event has not been received by the dispatcher (e.g., it is sent directly to the widget)
+			velocityTracker.addSample(pointerX, Util.platformTimeMillis());
+		}
+		for (int i = 0; i < samplesCount; i++) {
+			velocityTracker.addSample(dispatcher.getDragSampleX(i), dispatcher.getDragSampleTime(i));
+		}
+	}
+
 	private void loadOtherChild(int contentWidth, int pagesCount, int shiftX) {
 		int otherIndex;
 		int otherShiftX;
@@ -389,18 +896,39 @@ public class SwipeContainer extends Container {
 			}
 			otherShiftX = contentWidth;
 		}
-		Widget otherWidget = this.pages[otherIndex];
+		Widget otherWidget = getPage(otherIndex);
 		this.otherPageIndex = otherIndex;
-		super.addChild(otherWidget);
+		this.lastMoveToPrevious = shiftX > 0;
+		if (otherWidget == this.neighbour) {
+			// already the other child, it is not shown during the transition
+			hideNeighbour();
+			this.neighbour = null;
+		} else {
+			detachNeighbour();
+			super.addChild(otherWidget);
+		}
 		int contentHeight = getContentHeight();
 		computeChildOptimalSize(otherWidget, contentWidth, contentHeight);
 		layOutChild(otherWidget, otherShiftX, 0, contentWidth, contentHeight);
 
-		this.otherSnapshot = getSnapshot(otherWidget);
+		if (this.transitionRenderer.usesSnapshots()) {
+			BufferedImage snapshot = takePrerenderedSnapshot(otherIndex);
+			if (snapshot == null) {
+				// not rendered in advance or stale, frees the pool to render it now
+				releasePrerenderedSnapshot();
+				snapshot = getSnapshot(otherWidget);
+			}
+			this.otherSnapshot = snapshot;
+		}
 	}
 
 	private boolean onPointerReleased(final int pointerX, final int contentWidth) {
 		if (this.moving) {
+			// the velocity of the pages is the one of the pointer when it is released
+			long releaseTime = Util.platformTimeMillis();
+			VelocityTracker velocityTracker = this.velocityTracker;
+			velocityTracker.addSample(pointerX, releaseTime);
+			final float velocity = velocityTracker.getVelocity(releaseTime);
 			MicroUI.callSerially(new Runnable() {
 				@Override
 				public void run() {
@@ -411,23 +939,22 @@ public class SwipeContainer extends Container {
 						// Depending on the position of the child with the middle of the container, keep it or remove
 						// it.
 						Widget otherChild = getChild(OTHER);
-						float speed = -(float) (pointerX - SwipeContainer.this.pressedX)
-								/ (Util.platformTimeMillis() - SwipeContainer.this.pressedTime);
+						float speed = -velocity;
 						if (childX < 0) {
 							if (childX < -contentWidth / SCREEN_RATIO || speed > SPEED_THRESHOLD) {
 								doAnimation(currentChild, otherChild, childX, -contentWidth,
-										SwipeContainer.this.otherPageIndex, false);
+										SwipeContainer.this.otherPageIndex, false, velocity);
 							} else {
 								doAnimation(currentChild, otherChild, childX, 0, SwipeContainer.this.currentPageIndex,
-										true);
+										true, velocity);
 							}
 						} else {
 							if (childX > contentWidth / SCREEN_RATIO || speed < -SPEED_THRESHOLD) {
 								doAnimation(currentChild, otherChild, childX, contentWidth,
-										SwipeContainer.this.otherPageIndex, false);
+										SwipeContainer.this.otherPageIndex, false, velocity);
 							} else {
 								doAnimation(currentChild, otherChild, childX, 0, SwipeContainer.this.currentPageIndex,
-										true);
+										true, velocity);
 							}
 						}
 					}
@@ -435,12 +962,7 @@ public class SwipeContainer extends Container {
 			});
 			return true;
 		} else {
-			if (Constants.getBoolean(SCREENSHOTS)) {
-				if (this.currentSnapshot != null) {
-					this.currentSnapshot.close();
-					this.currentSnapshot = null;
-				}
-			}
+			releaseCurrentSnapshot();
 
 			this.pressed = false;
 		}
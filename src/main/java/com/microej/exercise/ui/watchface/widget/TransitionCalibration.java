@@ -0,0 +1,119 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+/**
+ * Measures several transition renderers on the actual transitions of a {@link SwipeContainer} to find the fastest one.
+ *
+ * <p>
+ * The candidates are used in turn, one per transition, until each of them has been used for a given number of
+ * transitions. The cost of a candidate is the time spent rendering its frames and taking its snapshots, divided by its
+ * number of frames.
+ */
+class TransitionCalibration {
+
+	private static final int TRANSITIONS_PER_RENDERER = 2;
+
+	private final TransitionRenderer[] renderers;
+
+	private final long[] durations;
+
+	private final int[] frames;
+
+	private final int[] transitions;
+
+	private int current;
+
+	/**
+	 * Creates a calibration.
+	 *
+	 * @param renderers
+	 *            the candidate renderers.
+	 */
+	TransitionCalibration(TransitionRenderer[] renderers) {
+		if (renderers.length == 0) {
+			throw new IllegalArgumentException();
+		}
+		this.renderers = renderers;
+		this.durations = new long[renderers.length];
+		this.frames = new int[renderers.length];
+		this.transitions = new int[renderers.length];
+	}
+
+	/**
+	 * Gets the renderer to use for the next transition.
+	 *
+	 * @return the renderer being measured.
+	 */
+	TransitionRenderer getRenderer() {
+		return this.renderers[this.current];
+	}
+
+	/**
+	 * Adds the time spent to render a frame with the current renderer.
+	 *
+	 * @param duration
+	 *            the render duration, in nanoseconds.
+	 */
+	void addFrame(long duration) {
+		this.durations[this.current] += duration;
+		this.frames[this.current]++;
+	}
+
+	/**
+	 * Adds the time spent to prepare a transition with the current renderer (e.g., to take the snapshots).
+	 *
+	 * @param duration
+	 *            the preparation duration, in nanoseconds.
+	 */
+	void addPreparation(long duration) {
+		this.durations[this.current] += duration;
+	}
+
+	/**
+	 * Notifies the end of a transition: the next candidate is used for the next transition.
+	 */
+	void onTransitionEnd() {
+		this.transitions[this.current]++;
+		this.current = (this.current + 1) % this.renderers.length;
+	}
+
+	/**
+	 * Gets whether all the candidates have been measured.
+	 *
+	 * @return <code>true</code> if the calibration is over, <code>false</code> otherwise.
+	 */
+	boolean isDone() {
+		for (int count : this.transitions) {
+			if (count < TRANSITIONS_PER_RENDERER) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the renderer with the lowest cost per frame.
+	 *
+	 * @return the fastest renderer.
+	 */
+	TransitionRenderer getFastest() {
+		int fastest = 0;
+		long fastestCost = Long.MAX_VALUE;
+		for (int i = 0; i < this.renderers.length; i++) {
+			int frames = this.frames[i];
+			if (frames > 0) {
+				long cost = this.durations[i] / frames;
+				if (cost < fastestCost) {
+					fastestCost = cost;
+					fastest = i;
+				}
+			}
+		}
+		return this.renderers[fastest];
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Java
+ *
+ * Copyright 2024 MicroEJ Corp. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be found with this software.
+ */
+package com.microej.exercise.ui.watchface.widget;
+
+import ej.microui.display.GraphicsContext;
+
+/**
+ * Renders the frames of a {@link SwipeContainer} while its pages are moving.
+ *
+ * <p>
+ * The renderer is called from {@link SwipeContainer#render(GraphicsContext)} and from the rendering of the content of
+ * the container, only during a transition. The rest of the time, the container renders as any other container.
+ */
+public interface TransitionRenderer {
+
+	/**
+	 * Gets whether this renderer draws the snapshots of the pages instead of the pages themselves.
+	 *
+	 * <p>
+	 * When it does, the container takes the snapshots before the transition (see
+	 * {@link SwipeContainer#drawSnapshots(GraphicsContext)}).
+	 *
+	 * @return <code>true</code> if the snapshots of the pages are needed, <code>false</code> otherwise.
+	 */
+	boolean usesSnapshots();
+
+	/**
+	 * Renders the container during a transition.
+	 *
+	 * <p>
+	 * The graphics context is the one given to {@link SwipeContainer#render(GraphicsContext)}. The implementation is
+	 * expected to call {@link SwipeContainer#renderContainer(GraphicsContext)}, possibly with a reduced clip.
+	 *
+	 * @param container
+	 *            the container to render.
+	 * @param g
+	 *            the graphics context to draw with.
+	 * @param shift
+	 *            the horizontal move of the pages since the previous frame, in pixels.
+	 */
+	void render(SwipeContainer container, GraphicsContext g, int shift);
+
+	/**
+	 * Renders the content of the container (its moving pages) during a transition.
+	 *
+	 * @param container
+	 *            the container to render.
+	 * @param g
+	 *            the graphics context to draw with, translated to the content of the container.
+	 * @param contentWidth
+	 *            the width of the content of the container.
+	 * @param contentHeight
+	 *            the height of the content of the container.
+	 */
+	void renderContent(SwipeContainer container, GraphicsContext g, int contentWidth, int contentHeight);
+}
@@ -4,13 +4,15 @@
  */
 package com.microej.exercise.ui.watchface.widget;
 
+import com.microej.exercise.ui.util.ImageCache;
+import com.microej.exercise.ui.util.TickListener;
+import com.microej.exercise.ui.util.TickScheduler;
 import com.microej.exercise.ui.util.TimeHelper;
-import ej.bon.Timer;
-import ej.bon.TimerTask;
+import ej.bon.Constants;
 import ej.bon.Util;
-import ej.drawing.TransformPainter;
 import ej.microui.display.GraphicsContext;
 import ej.microui.display.Image;
+import ej.microui.display.Painter;
 import ej.mwt.Widget;
 import ej.mwt.util.Size;
 
@@ -19,20 +21,42 @@ import ej.mwt.util.Size;
  *
  * <p>
  * It draws three hands (hour, minute, second) and updates continuously as soon as it is shown on the display. The hands
- * are rendered with bitmap images.
+ * are rendered with bitmap images. The hands are updated on every second by the {@link TickScheduler}.
+ *
+ * <p>
+ * The hands move by steps (60 positions for the minutes and seconds, 240 for the hours). The rotated images of the hands
+ * are kept in an {@link ImageCache} bounded by the images heap budget defined by the
+ * <code>com.microej.exercise.ui.watchhands.cache.budget</code> constant. All the rotated images of the second hand stay
+ * in the cache (only a quarter of its positions are rendered, see {@link RotatedHand}), the hour and minute hands
+ * release the image of their previous position when they move.
+ *
+ * <p>
+ * At each tick, only the area covered by the previous and new positions of the hands that moved is rendered again. Set
+ * the <code>com.microej.exercise.ui.watchhands.debug.dirty.enabled</code> constant to outline this area.
  */
-public class WatchHands extends Widget {
+public class WatchHands extends Widget implements TickListener {
 
-	private static final int UPDATE_PERIOD = 500;
+	private static final String CACHE_BUDGET = "com.microej.exercise.ui.watchhands.cache.budget"; //$NON-NLS-1$
+	private static final String CACHE_SECONDS = "com.microej.exercise.ui.watchhands.cache.seconds"; //$NON-NLS-1$
+	private static final String DEBUG_DIRTY = "com.microej.exercise.ui.watchhands.debug.dirty.enabled"; //$NON-NLS-1$
+	private static final String DEBUG_DIRTY_COLOR = "com.microej.exercise.ui.watchhands.debug.dirty.color"; //$NON-NLS-1$
 
-	/** The angle between two successive hours (in degrees). Negative angle is clockwise rotation. */
-	private static final int DEGREES_HOUR = -30;
+	/** The number of positions of the hour hand on a full turn (every 3 minutes). */
+	private static final int HOUR_POSITIONS = 240;
 
-	/** The angle between two successive minutes (in degrees). Negative angle is clockwise rotation. */
-	private static final int DEGREES_MINUTE = -6;
+	/** The number of positions of the minute hand on a full turn. */
+	private static final int MINUTE_POSITIONS = 60;
 
-	/** The angle between two successive seconds (in degrees). Negative angle is clockwise rotation. */
-	private static final int DEGREES_SECOND = -6;
+	/** The number of positions of the second hand on a full turn. */
+	private static final int SECOND_POSITIONS = 60;
+
+	/** The maximum number of rotated images in the cache (all the seconds plus the current hour and minute). */
+	private static final int CACHE_CAPACITY = RotatedHand.getSpritesCount(SECOND_POSITIONS) + 2;
+
+	// The first keys of the rotated images of each hand in the cache.
+	private static final int HOURS_KEY = 0;
+	private static final int MINUTES_KEY = HOURS_KEY + HOUR_POSITIONS;
+	private static final int SECONDS_KEY = MINUTES_KEY + MINUTE_POSITIONS;
 
 	/** The x-coordinate of the rotation center for the hour hand, relative to the top-left of the hand image. */
 	private static final int HOURS_RX = 9;
@@ -56,27 +80,44 @@ public class WatchHands extends Widget {
 
 	private static final String IMAGE_FOLDER = "/images/watchface/"; //$NON-NLS-1$
 
-	private final Image hoursHandImage;
+	private final Image secondsHandImage;
 
-	private final Image minutesHandImage;
+	private final RotatedHand hoursHand;
 
-	private final Image secondsHandImage;
+	private final RotatedHand minutesHand;
 
-	private TimerTask task;
+	private final RotatedHand secondsHand;
 
-	private final Timer timer;
+	private final ImageCache cache;
+
+	// Current positions of the hands.
+	private int hourPosition;
+	private int minutePosition;
+	private int secondPosition;
+
+	// Area to render again, relative to the center of the content.
+	private int dirtyX;
+	private int dirtyY;
+	private int dirtyWidth;
+	private int dirtyHeight;
 
 	/**
 	 * Creates the watchface.
-	 *
-	 * @param timer
-	 *            the timer instance to use for scheduling the internal update task.
 	 */
-	public WatchHands(Timer timer) {
-		this.hoursHandImage = Image.getImage(IMAGE_FOLDER + "hour.png"); //$NON-NLS-1$
-		this.minutesHandImage = Image.getImage(IMAGE_FOLDER + "minute.png"); //$NON-NLS-1$
+	public WatchHands() {
+		Image hoursHandImage = Image.getImage(IMAGE_FOLDER + "hour.png"); //$NON-NLS-1$
+		Image minutesHandImage = Image.getImage(IMAGE_FOLDER + "minute.png"); //$NON-NLS-1$
 		this.secondsHandImage = Image.getImage(IMAGE_FOLDER + "second.png"); //$NON-NLS-1$
-		this.timer = timer;
+
+		// the hour and minute hands stay at the same position for at least one minute, their rotated images are always
+		// worth caching. The second hand needs all its positions in the cache to benefit from it, they fit in the
+		// default budget.
+		this.hoursHand = new RotatedHand(hoursHandImage, HOURS_RX, HOURS_RY, HOUR_POSITIONS, HOURS_KEY, true);
+		this.minutesHand = new RotatedHand(minutesHandImage, MINUTES_RX, MINUTES_RY, MINUTE_POSITIONS, MINUTES_KEY,
+				true);
+		this.secondsHand = new RotatedHand(this.secondsHandImage, SECONDS_RX, SECONDS_RY, SECOND_POSITIONS,
+				SECONDS_KEY, Constants.getBoolean(CACHE_SECONDS));
+		this.cache = new ImageCache(CACHE_CAPACITY, Constants.getInt(CACHE_BUDGET));
 	}
 
 	@Override
@@ -89,115 +130,147 @@ public class WatchHands extends Widget {
 	@Override
 	protected void renderContent(GraphicsContext g, int contentWidth, int contentHeight) {
 
-		// compute the hands angles for the current time
-		long currentTimeMillis = Util.currentTimeMillis();
-		float hourAngle = computeHourAngle(currentTimeMillis);
-		float minuteAngle = computeMinuteAngle(currentTimeMillis);
-		float secondAngle = computeSecondAngle(currentTimeMillis);
-
 		// compute the coordinates of the rotation center (i.e., center of the widget content area)
 		int centerX = contentWidth / 2;
 		int centerY = contentHeight / 2;
 
-		// render the hands
-		renderHand(g, this.hoursHandImage, hourAngle, centerX, centerY, HOURS_RX, HOURS_RY);
-		renderHand(g, this.minutesHandImage, minuteAngle, centerX, centerY, MINUTES_RX, MINUTES_RY);
-		renderHand(g, this.secondsHandImage, secondAngle, centerX, centerY, SECONDS_RX, SECONDS_RY);
-
-	}
-
-	/**
-	 * Renders a hand, given the image of the hand, the hand angle and the rotation center.
-	 *
-	 * @param g
-	 *            the graphics context.
-	 * @param image
-	 *            the image of the hand.
-	 * @param angle
-	 *            the angle of the hand.
-	 * @param rx
-	 *            the x coordinate of the rotation center.
-	 * @param ry
-	 *            the y coordinate of the rotation center.
-	 * @param xOffset
-	 *            the x coordinate of the hand axle, relative to the image origin.
-	 * @param yOffset
-	 *            the y coordinate of the hand axle, relative to the image origin.
-	 */
-	private void renderHand(GraphicsContext g, Image image, float angle, int rx, int ry, int xOffset, int yOffset) {
-		int x = rx - xOffset;
-		int y = ry - yOffset;
-		TransformPainter.drawRotatedImageBilinear(g, image, x, y, rx, ry, angle);
+		// render the hands at the positions computed at the last tick, the graphics context is clipped to the dirty
+		// area when only a part of the widget is rendered
+		ImageCache cache = this.cache;
+		this.hoursHand.draw(g, cache, this.hourPosition, centerX, centerY);
+		this.minutesHand.draw(g, cache, this.minutePosition, centerX, centerY);
+		this.secondsHand.draw(g, cache, this.secondPosition, centerX, centerY);
+
+		if (Constants.getBoolean(DEBUG_DIRTY) && this.dirtyWidth > 0) {
+			// outlines the area rendered at the last tick
+			g.setColor(Constants.getInt(DEBUG_DIRTY_COLOR));
+			Painter.drawRectangle(g, centerX + this.dirtyX, centerY + this.dirtyY, this.dirtyWidth, this.dirtyHeight);
+		}
 	}
 
 	@Override
 	protected void onShown() {
 		super.onShown();
+		updatePositions(Util.currentTimeMillis());
 		// starts the hands animation when the widget is shown on the display
-		startAnimation();
+		TickScheduler.getInstance().subscribe(this, TickScheduler.SECOND);
 	}
 
 	@Override
 	protected void onHidden() {
 		super.onHidden();
 		// ensures that no animation is running when the watchface is not shown on the display
-		stopAnimation();
+		TickScheduler.getInstance().unsubscribe(this);
+	}
+
+	@Override
+	protected void onDetached() {
+		super.onDetached();
+		// the widget has been detached from the widget hierarchy, release the rotated images in memory.
+		this.cache.clear();
+	}
+
+	@Override
+	public void onTick(long time) {
+		int previousHourPosition = this.hourPosition;
+		int previousMinutePosition = this.minutePosition;
+		int previousSecondPosition = this.secondPosition;
+		updatePositions(time);
+
+		// the hour and minute hands will not come back to their previous positions before long, releases their images
+		// so that the images of the second hand are not evicted
+		ImageCache cache = this.cache;
+		if (previousHourPosition != this.hourPosition) {
+			this.hoursHand.release(cache, previousHourPosition);
+		}
+		if (previousMinutePosition != this.minutePosition) {
+			this.minutesHand.release(cache, previousMinutePosition);
+		}
+
+		// computes the area covered by the previous and new positions of the hands that moved
+		this.dirtyWidth = 0;
+		addDirtyHand(this.hoursHand, previousHourPosition, this.hourPosition);
+		addDirtyHand(this.minutesHand, previousMinutePosition, this.minutePosition);
+		addDirtyHand(this.secondsHand, previousSecondPosition, this.secondPosition);
+
+		if (this.dirtyWidth > 0) {
+			// requests a render of this area only (relative to the widget bounds)
+			int x = getContentX() + getContentWidth() / 2 + this.dirtyX;
+			int y = getContentY() + getContentHeight() / 2 + this.dirtyY;
+			requestRender(x, y, this.dirtyWidth, this.dirtyHeight);
+		}
 	}
 
-	private void startAnimation() {
-		stopAnimation();
-		this.task = new TimerTask() {
+	private void updatePositions(long time) {
+		this.hourPosition = computeHourPosition(time);
+		this.minutePosition = computeMinutePosition(time);
+		this.secondPosition = computeSecondPosition(time);
+	}
 
-			@Override
-			public void run() {
-				requestRender();
-			}
-		};
-		this.timer.schedule(this.task, UPDATE_PERIOD, UPDATE_PERIOD);
+	private void addDirtyHand(RotatedHand hand, int previousPosition, int position) {
+		if (previousPosition != position) {
+			hand.computeBounds(previousPosition);
+			addDirtyBounds(hand);
+			hand.computeBounds(position);
+			addDirtyBounds(hand);
+		}
 	}
 
-	private void stopAnimation() {
-		TimerTask timerTask = this.task;
-		if (timerTask != null) {
-			timerTask.cancel();
+	private void addDirtyBounds(RotatedHand hand) {
+		int x = hand.getBoundsX();
+		int y = hand.getBoundsY();
+		int width = hand.getBoundsWidth();
+		int height = hand.getBoundsHeight();
+		if (this.dirtyWidth == 0) {
+			this.dirtyX = x;
+			this.dirtyY = y;
+			this.dirtyWidth = width;
+			this.dirtyHeight = height;
+		} else {
+			int right = Math.max(this.dirtyX + this.dirtyWidth, x + width);
+			int bottom = Math.max(this.dirtyY + this.dirtyHeight, y + height);
+			this.dirtyX = Math.min(this.dirtyX, x);
+			this.dirtyY = Math.min(this.dirtyY, y);
+			this.dirtyWidth = right - this.dirtyX;
+			this.dirtyHeight = bottom - this.dirtyY;
 		}
 	}
 
 	/**
-	 * Computes the angle of the hour hand, given a time (in milliseconds since Epoch).
+	 * Computes the position of the hour hand, given a time (in milliseconds since Epoch).
 	 *
 	 * @param time
 	 *            a time, in milliseconds since Epoch.
-	 * @return the angle of the hour hand.
+	 * @return the position of the hour hand, between <code>0</code> and {@link #HOUR_POSITIONS} (excluded).
 	 */
-	private static float computeHourAngle(long time) {
+	private static int computeHourPosition(long time) {
 		float hour = TimeHelper.computeHour(time);
 		if (hour >= NOON) {
 			hour -= NOON;
 		}
-		return hour * DEGREES_HOUR;
+		return (int) (hour * HOUR_POSITIONS / NOON);
 	}
 
 	/**
-	 * Computes the angle of the minute hand, given a time (in milliseconds since Epoch).
+	 * Computes the position of the minute hand, given a time (in milliseconds since Epoch).
 	 *
 	 * @param time
 	 *            a time, in milliseconds since Epoch.
-	 * @return the angle of the minute hand.
+	 * @return the position of the minute hand, between <code>0</code> and {@link #MINUTE_POSITIONS} (excluded).
 	 */
-	private static float computeMinuteAngle(long time) {
-		return TimeHelper.computeMinute(time) * DEGREES_MINUTE;
+	private static int computeMinutePosition(long time) {
+		return (int) TimeHelper.computeMinute(time);
 	}
 
 	/**
-	 * Computes the angle of the second hand, given a time (in milliseconds since Epoch).
+	 * Computes the position of the second hand, given a time (in milliseconds since Epoch).
 	 *
 	 * @param time
 	 *            a time, in milliseconds since Epoch.
-	 * @return the angle of the second hand.
+	 * @return the position of the second hand, between <code>0</code> and {@link #SECOND_POSITIONS} (excluded).
 	 */
-	private static int computeSecondAngle(long time) {
-		return TimeHelper.computeSeconds(time) * DEGREES_SECOND;
+	private static int computeSecondPosition(long time) {
+		return TimeHelper.computeSeconds(time);
 	}
 
 }